@@ -0,0 +1,59 @@
+package com.focustrack.backend.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the application's in-process caches and publishes their
+ * hit/miss/eviction counters using the standard Micrometer cache meter names.
+ */
+@Component
+public class CacheRegistry implements MeterBinder {
+
+    private final List<BoundedCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public <K, V> BoundedCache<K, V> create(String name, int maxSize, Duration ttl) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maxSize, ttl);
+        caches.add(cache);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            register(registry, cache);
+        }
+        return cache;
+    }
+
+    public List<BoundedCache<?, ?>> getCaches() {
+        return List.copyOf(caches);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        caches.forEach(cache -> register(registry, cache));
+    }
+
+    private void register(MeterRegistry registry, BoundedCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::hitCount)
+                .tag("cache", cache.getName())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::missCount)
+                .tag("cache", cache.getName())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedCache::evictionCount)
+                .tag("cache", cache.getName())
+                .register(registry);
+        Gauge.builder("cache.size", cache, BoundedCache::size)
+                .tag("cache", cache.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.focustrack.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (email outbox, reminders, reset-token sweeper); focustrack.scheduling.enabled=false turns them all off, e.g. in tests
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "focustrack.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
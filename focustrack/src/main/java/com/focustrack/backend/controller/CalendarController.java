@@ -0,0 +1,75 @@
+package com.focustrack.backend.controller;
+
+import com.focustrack.backend.dto.GoalDTO;
+import com.focustrack.backend.service.CalendarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/goals")
+@Tag(name = "Calendar", description = "Goals and steps by date, as JSON or as a subscribable iCalendar feed")
+public class CalendarController {
+
+    static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final CalendarService calendarService;
+
+    @Autowired
+    public CalendarController(CalendarService calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    @Operation(summary = "Get goals in a date window", description = "Returns the user's goals and steps whose start date or due date falls within [from, to]")
+    @GetMapping("/calendar")
+    public ResponseEntity<List<GoalDTO>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(calendarService.getCalendar(from, to));
+    }
+
+    @Operation(summary = "Issue a calendar feed token", description = "Returns a new read-only token for /goals/calendar.ics?token=...; "
+            + "any earlier token of the user stops working. The token is only shown once.")
+    @PostMapping("/calendar/feed-token")
+    public ResponseEntity<String> issueFeedToken() {
+        return ResponseEntity.ok(calendarService.issueFeedToken());
+    }
+
+    @Operation(summary = "Revoke the calendar feed token", description = "Existing calendar subscriptions stop receiving updates")
+    @DeleteMapping("/calendar/feed-token")
+    public ResponseEntity<Void> revokeFeedToken() {
+        calendarService.revokeFeedToken();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "iCalendar feed", description = "Streams every dated goal and step as an all-day VEVENT. Authenticated only by the "
+            + "feed token from POST /goals/calendar/feed-token, so calendar apps can subscribe to the URL. Supports If-None-Match.")
+    @GetMapping(value = "/calendar.ics", produces = "text/calendar")
+    public ResponseEntity<StreamingResponseBody> getCalendarFeed(@RequestParam(required = false) String token, WebRequest request) {
+        Optional<Long> feedUserId = calendarService.findFeedUserId(token);
+        if (feedUserId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Long userId = feedUserId.get();
+        String etag = calendarService.getFeedETag(userId);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(TEXT_CALENDAR)
+                .body(outputStream -> calendarService.writeFeed(userId, outputStream));
+    }
+}
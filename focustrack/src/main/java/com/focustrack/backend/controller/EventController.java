@@ -0,0 +1,35 @@
+package com.focustrack.backend.controller;
+
+import com.focustrack.backend.service.GoalEventHub;
+import com.focustrack.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/events")
+@Tag(name = "Events", description = "Server-sent events for goal and comment changes")
+public class EventController {
+
+    private final GoalEventHub goalEventHub;
+    private final UserService userService;
+
+    @Autowired
+    public EventController(GoalEventHub goalEventHub, UserService userService) {
+        this.goalEventHub = goalEventHub;
+        this.userService = userService;
+    }
+
+    @Operation(summary = "Subscribe to goal and comment changes", description = "text/event-stream of GOAL_UPDATED, GOAL_SHARED, GOAL_UNSHARED, "
+            + "COMMENT_ADDED, COMMENT_UPDATED and COMMENT_DELETED events for goals the user can see. "
+            + "EventSource clients may pass the JWT as the access_token query parameter. "
+            + "Slow clients are disconnected; after reconnecting, refetch with If-None-Match to catch up.")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return goalEventHub.subscribe(userService.getAuthenticatedUser().getId());
+    }
+}
@@ -2,14 +2,26 @@ package com.focustrack.backend.controller;
 
 import com.focustrack.backend.model.Goal;
 import com.focustrack.backend.service.GoalService;
+import com.focustrack.backend.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.focustrack.backend.dto.CursorPage;
 import com.focustrack.backend.dto.GoalDTO;
+import com.focustrack.backend.dto.GoalOrderKey;
+import com.focustrack.backend.dto.GoalStatsDTO;
+import com.focustrack.backend.dto.ImportResultDTO;
+import com.focustrack.backend.dto.NewGoalStepDTO;
+import com.focustrack.backend.dto.ReorderGoalsDTO;
 import com.focustrack.backend.dto.UpdateGoalDTO;
 import com.focustrack.backend.dto.GoalStepDTO;
+import com.focustrack.backend.dto.GoalTreeDTO;
 
+import java.io.IOException;
 import java.util.List;
 import java.time.LocalDate;
 
@@ -23,11 +35,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 @Tag(name = "Goals", description = "Manage user goals and sub-goals (steps)")
 public class GoalController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final GoalService goalService;
+    private final ImportService importService;
 
     @Autowired
-    public GoalController(GoalService goalService) {
+    public GoalController(GoalService goalService, ImportService importService) {
         this.goalService = goalService;
+        this.importService = importService;
     }
 
     @Operation(summary = "Create a new goal", description = "Creates a new main goal for the authenticated user")
@@ -59,6 +77,24 @@ public class GoalController {
         return ResponseEntity.ok(stepGoal);
     }
 
+    @Operation(summary = "Add several steps to a main goal", description = "Creates all given steps under a main goal in one transaction using batched inserts")
+    @PostMapping("/{mainGoalId}/steps/batch")
+    public ResponseEntity<List<Goal>> addGoalSteps(@PathVariable Long mainGoalId, @RequestBody List<NewGoalStepDTO> steps) {
+        return ResponseEntity.ok(goalService.addGoalSteps(mainGoalId, steps));
+    }
+
+    @Operation(summary = "Import goals and steps", description = "Streams an NDJSON body (one main goal per line, steps nested under \"steps\") or a CSV body "
+            + "(header with type, description, priority, startDate, dueDate, order, done; step rows follow their goal row). "
+            + "Lines are written in batches; invalid lines are reported by line number and skipped.")
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<ImportResultDTO> importGoals(HttpServletRequest request) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV);
+        ImportResultDTO result = csv
+                ? importService.importCsv(request.getInputStream())
+                : importService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(summary = "Update a goal's done status", description = "Mark a goal as done or not done")
     @PatchMapping("/{goalId}/status")
     public ResponseEntity<?> updateGoalStatus(@PathVariable Long goalId, @RequestParam boolean isDone) {
@@ -66,6 +102,13 @@ public class GoalController {
         return ResponseEntity.ok("Goal status updated successfully!");
     }
 
+    @Operation(summary = "Reorder goals or steps", description = "Applies a complete new ordering (orderedIds) or a single move (goalId between previousId and nextId) "
+            + "to the main goals, or to the steps of parentGoalId. Returns the order keys that changed.")
+    @PatchMapping("/order")
+    public ResponseEntity<List<GoalOrderKey>> reorderGoals(@RequestBody ReorderGoalsDTO request) {
+        return ResponseEntity.ok(goalService.reorderGoals(request));
+    }
+
     @Operation(summary = "Update a goal", description = "Updates the fields of a goal including description, progress, priority, etc.")
     @PatchMapping("/{goalId}")
     public ResponseEntity<?> updateGoal(@PathVariable Long goalId, @RequestBody UpdateGoalDTO updateData) {
@@ -73,11 +116,37 @@ public class GoalController {
         return ResponseEntity.ok("Goal updated successfully!");
     }
 
-    @Operation(summary = "Get current user's goals", description = "Returns all main goals created by the authenticated user, sorted by goal order, and filtered by unfinished status.")
+    @Operation(summary = "Get current user's goals", description = "Returns the main goals created by the authenticated user, sorted by goal order, and filtered by unfinished status. "
+            + "When limit is given, the response is one page and the X-Next-Cursor header carries the cursor for the next page. "
+            + "Supports If-None-Match.")
     @GetMapping("/")
     public ResponseEntity<List<GoalDTO>> getUserGoals(
-            @RequestParam(value = "filter", required = false) boolean filterUnfinished) { // Optional filter query param
-        return ResponseEntity.ok(goalService.getUserGoals(filterUnfinished));
+            @RequestParam(value = "filter", required = false) boolean filterUnfinished, // Optional filter query param
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        String etag = goalService.getUserGoalsETag(filterUnfinished, limit, cursor);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written
+        }
+        CursorPage<GoalDTO> page = goalService.getUserGoals(filterUnfinished, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(summary = "Get goal tree", description = "Returns all main goals of the authenticated user, each with its steps, ordered by goal order.")
+    @GetMapping("/tree")
+    public ResponseEntity<List<GoalTreeDTO>> getGoalTree() {
+        return ResponseEntity.ok(goalService.getGoalTree());
+    }
+
+    @Operation(summary = "Get goal statistics", description = "Returns counts of the user's main goals by status and priority bucket, plus overdue and due-this-week counts")
+    @GetMapping("/stats")
+    public ResponseEntity<GoalStatsDTO> getGoalStats() {
+        return ResponseEntity.ok(goalService.getGoalStats());
     }
 
     @Operation(summary = "Get a specific goal", description = "Returns details of a specific goal owned by the user")
@@ -87,10 +156,14 @@ public class GoalController {
         return ResponseEntity.ok(goalDTO);
     }
 
-    @Operation(summary = "Get steps of a goal", description = "Returns the sub-goals (steps) associated with a main goal")
+    @Operation(summary = "Get steps of a goal", description = "Returns the sub-goals (steps) associated with a main goal. Supports If-None-Match.")
     @GetMapping("/{goalId}/steps")
-    public ResponseEntity<List<GoalStepDTO>> getGoalSteps(@PathVariable Long goalId) {
-        return ResponseEntity.ok(goalService.getGoalSteps(goalId));
+    public ResponseEntity<List<GoalStepDTO>> getGoalSteps(@PathVariable Long goalId, WebRequest request) {
+        String etag = goalService.getGoalStepsETag(goalId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(goalService.getGoalSteps(goalId));
     }
 
 
@@ -102,6 +175,13 @@ public class GoalController {
         return ResponseEntity.ok("Goal deleted successfully!");
     }
 
+    @Operation(summary = "Delete several goals", description = "Deletes the given main goals and their steps, shares and comments")
+    @DeleteMapping
+    public ResponseEntity<?> deleteGoals(@RequestParam List<Long> ids) {
+        goalService.deleteGoals(ids);
+        return ResponseEntity.ok("Goals deleted successfully!");
+    }
+
     @Operation(summary = "Delete a step goal", description = "Deletes a sub-goal (step) from a main goal")
     @DeleteMapping("/steps/{stepGoalId}")
     public ResponseEntity<?> deleteStepGoal(@PathVariable Long stepGoalId) {
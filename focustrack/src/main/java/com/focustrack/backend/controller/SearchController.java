@@ -0,0 +1,41 @@
+package com.focustrack.backend.controller;
+
+import com.focustrack.backend.dto.CursorPage;
+import com.focustrack.backend.dto.SearchResultDTO;
+import com.focustrack.backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/search")
+@Tag(name = "Search", description = "Full-text search over goals and comments")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Operation(summary = "Search goals and comments", description = "Ranked full-text search over the user's goals and steps, goals shared with the user "
+            + "and comments on them. q accepts web-search syntax (quotes, OR, -word). The X-Next-Cursor header carries the cursor for the next page.")
+    @GetMapping
+    public ResponseEntity<List<SearchResultDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        CursorPage<SearchResultDTO> page = searchService.search(q, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(GoalController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
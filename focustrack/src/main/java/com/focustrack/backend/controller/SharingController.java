@@ -1,11 +1,18 @@
 package com.focustrack.backend.controller;
 
+import com.focustrack.backend.dto.CommentThreadPage;
+import com.focustrack.backend.dto.CursorPage;
+import com.focustrack.backend.dto.GoalDTO;
 import com.focustrack.backend.service.SharingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,14 +24,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 @Tag(name = "Sharing", description = "Manage sharing of goals between contacts, and comments")
 public class SharingController {
 
+    public static final String PREV_CURSOR_HEADER = "X-Prev-Cursor";
+    public static final String HAS_NEWER_HEADER = "X-Has-Newer";
+
     @Autowired
     private SharingService sharingService;
 
-    @Operation(summary = "Get goals shared with the current user")
+    @Operation(summary = "Get goals shared with the current user", description = "Ordered by goal id. When limit is given, the response is one page "
+            + "and the X-Next-Cursor header carries the cursor for the next page. Supports If-None-Match.")
     @ApiResponse(responseCode = "200", description = "List of shared goals retrieved successfully")
     @GetMapping("/my-shared-goals")
-    public ResponseEntity<List<?>> getGoalsSharedWithMe() {
-        return ResponseEntity.ok(sharingService.getSharedGoals());
+    public ResponseEntity<List<?>> getGoalsSharedWithMe(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        String etag = sharingService.getSharedGoalsETag(limit, cursor);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written
+        }
+        return page(sharingService.getSharedGoals(limit, cursor), etag);
     }
 
     @Operation(summary = "Get details of a shared goal by ID")
@@ -41,12 +59,27 @@ public class SharingController {
         }
     }    
     
-    @Operation(summary = "Get goals shared by a specific user")
+    @Operation(summary = "Get goals shared by a specific user", description = "Ordered by goal id and paged like /my-shared-goals. Supports If-None-Match.")
     @ApiResponse(responseCode = "200", description = "List of goals shared by the user")
     @GetMapping("/shared-goals")
-    public ResponseEntity<List<?>> getGoalsSharedByUser(@RequestParam Long ownerId) {
-        List<?> sharedGoals = sharingService.getGoalsSharedByUser(ownerId);
-        return ResponseEntity.ok(sharedGoals);
+    public ResponseEntity<List<?>> getGoalsSharedByUser(
+            @RequestParam Long ownerId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        String etag = sharingService.getGoalsSharedByUserETag(ownerId, limit, cursor);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return page(sharingService.getGoalsSharedByUser(ownerId, limit, cursor), etag);
+    }
+
+    private static ResponseEntity<List<?>> page(CursorPage<?> page, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getNextCursor() != null) {
+            response.header(GoalController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @Operation(summary = "Get users a specific goal is shared with")
@@ -64,6 +97,16 @@ public class SharingController {
         return ResponseEntity.ok(sharingService.getStepsOfSharedGoal(goalId, contactId));
     }
 
+    @Operation(summary = "Get steps of several shared goals", description = "Returns the steps of each given shared goal, keyed by goal id and ordered by goal order")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Steps retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "A goal is not shared with the user")
+    })
+    @GetMapping("/shared-goals/steps")
+    public ResponseEntity<Map<Long, List<GoalDTO>>> getStepsOfSharedGoals(@RequestParam List<Long> goalIds) {
+        return ResponseEntity.ok(sharingService.getStepsOfSharedGoals(goalIds));
+    }
+
     @Operation(summary = "Share a goal with a contact")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Goal shared successfully"),
@@ -98,11 +141,48 @@ public class SharingController {
         return ResponseEntity.ok("Comment added!");
     }
 
-    @Operation(summary = "Get all comments on a goal")
+    @Operation(summary = "Mark comments on a goal as read", description = "Moves the user's read watermark to upTo (a comment id), "
+            + "or to the latest comment when upTo is omitted, and resets unreadComments accordingly. The watermark never moves back.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Watermark updated"),
+        @ApiResponse(responseCode = "400", description = "User does not have access to the goal")
+    })
+    @PostMapping("/comments/{goalId}/read")
+    public ResponseEntity<Void> markCommentsRead(@PathVariable Long goalId, @RequestParam(required = false) Long upTo) {
+        sharingService.markCommentsRead(goalId, upTo);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get comments on a goal", description = "Oldest first. Without parameters the whole thread is returned; "
+            + "with only limit, the newest comments. after (a cursor) or since (a timestamp) fetch newer comments, before fetches older ones. "
+            + "X-Prev-Cursor and X-Next-Cursor carry the cursors to pass as before and after; X-Prev-Cursor is absent when no "
+            + "older comments exist. An empty page keeps the cursor it was read from, so polling can resume there. "
+            + "X-Has-Newer: true means newer comments already exist and can be fetched straight away. Supports If-None-Match.")
     @ApiResponse(responseCode = "200", description = "List of comments returned")
     @GetMapping("/comments/{goalId}")
-    public ResponseEntity<List<?>> getComments(@PathVariable Long goalId) {
-        return ResponseEntity.ok(sharingService.getComments(goalId));
+    public ResponseEntity<List<?>> getComments(
+            @PathVariable Long goalId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            WebRequest request) {
+        String etag = sharingService.getCommentsETag(goalId, limit, after, before, since);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CommentThreadPage page = sharingService.getComments(goalId, limit, after, before, since);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getOlderCursor() != null) {
+            response.header(PREV_CURSOR_HEADER, page.getOlderCursor());
+        }
+        if (page.getNewerCursor() != null) {
+            response.header(GoalController.NEXT_CURSOR_HEADER, page.getNewerCursor());
+        }
+        if (page.isHasNewer()) {
+            response.header(HAS_NEWER_HEADER, "true");
+        }
+        return response.body(page.getItems());
     }
 
 
@@ -3,6 +3,8 @@ package com.focustrack.backend.controller;
 import com.focustrack.backend.dto.LoginRequestDTO;
 import com.focustrack.backend.dto.RegisterUserDTO;
 import com.focustrack.backend.dto.UpdateUserDTO;
+import com.focustrack.backend.service.ExportService;
+import com.focustrack.backend.service.UserDirectoryService;
 import com.focustrack.backend.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,8 +13,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -22,10 +28,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final ExportService exportService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDirectoryService userDirectoryService, ExportService exportService) {
         this.userService = userService;
+        this.userDirectoryService = userDirectoryService;
+        this.exportService = exportService;
     }
     
     @Operation(summary = "Register a new user", description = "Creates a new user account with email and password validation.")
@@ -72,6 +82,28 @@ public class UserController {
         }
     }   
 
+    @Operation(summary = "Typeahead search for users", description = "Returns up to limit users whose email starts with or resembles q, prefix matches first. "
+            + "Rate limited per caller.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching users"),
+        @ApiResponse(responseCode = "400", description = "Invalid query or limit"),
+        @ApiResponse(responseCode = "429", description = "Too many requests")
+    })
+    @GetMapping("/typeahead")
+    public ResponseEntity<?> typeahead(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        try {
+            Long callerId = userService.getAuthenticatedUser().getId();
+            if (!userDirectoryService.tryAcquire(callerId)) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("Too many requests, slow down");
+            }
+            return ResponseEntity.ok(userDirectoryService.typeahead(callerId, q, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Find User by ID", description = "Retrieves user details based on the provided user ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User found"),
@@ -100,6 +132,17 @@ public class UserController {
         }
     }     
     
+    @Operation(summary = "Export my data", description = "Streams the user's profile, goals, steps, shares and comments as NDJSON, one object per line with a type field.")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @GetMapping(value = "/me/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportMyData() {
+        Long userId = userService.getAuthenticatedUser().getId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=\"focustrack-export.ndjson\"")
+                .body(outputStream -> exportService.writeExport(userId, outputStream));
+    }
+
     @Operation(summary = "Update User Profile", description = "Allows users to update their email, password, or description.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
@@ -0,0 +1,18 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Constructor-expression row for the iCalendar feed: read-only, never enters the persistence context
+@Getter
+@AllArgsConstructor
+public class CalendarEntryDTO {
+    private Long goalId;
+    private String description;
+    private LocalDate startDate;
+    private LocalDate dueDate;
+    private boolean done;
+    private int hierarchy;
+}
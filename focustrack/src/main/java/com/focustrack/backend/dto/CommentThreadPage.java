@@ -0,0 +1,16 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// A slice of a comment thread, oldest first, with cursors to extend it in either direction
+@Getter
+@AllArgsConstructor
+public class CommentThreadPage {
+    private List<GoalCommentDTO> items;
+    private String olderCursor; // null when no older comments exist
+    private String newerCursor; // null only for an empty whole thread: an empty slice keeps the cursor it was read from
+    private boolean hasNewer; // newer comments already exist past newerCursor
+}
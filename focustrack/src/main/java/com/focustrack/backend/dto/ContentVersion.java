@@ -0,0 +1,13 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Aggregate over a set of rows that changes whenever a row is added, removed or updated
+@Getter
+@AllArgsConstructor
+public class ContentVersion {
+    private Long count;
+    private Long maxRowVersion; // null when the set is empty
+    private Long idSum;
+}
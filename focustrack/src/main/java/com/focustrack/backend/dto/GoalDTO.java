@@ -18,6 +18,9 @@ public class GoalDTO {
     private int hierarchy;
     private boolean isDone; // Include isDone from UserGoal
     private int order;
+    private int stepCount;
+    private int doneStepCount;
+    private int unreadComments; // comments by others after the user's read watermark
 
     public GoalDTO(Goal goal, UserGoal userGoal) {
         this.id = goal.getId();
@@ -28,6 +31,24 @@ public class GoalDTO {
         this.dueDate = goal.getDueDate();
         this.isDone = goal.isDone();
         this.order = goal.getGoalOrder();
+        this.stepCount = goal.getStepCount();
+        this.doneStepCount = goal.getDoneStepCount();
         this.hierarchy = (userGoal != null) ? userGoal.getHierarchy() : 0;
     }
+
+    // Column-by-column form for JPQL constructor expressions, so feeds can be read without loading entities
+    public GoalDTO(Long id, String description, int priority, int progress, LocalDate startDate, LocalDate dueDate,
+                   boolean isDone, int order, int stepCount, int doneStepCount, int hierarchy) {
+        this.id = id;
+        this.description = description;
+        this.priority = priority;
+        this.progress = progress;
+        this.startDate = startDate;
+        this.dueDate = dueDate;
+        this.isDone = isDone;
+        this.order = order;
+        this.stepCount = stepCount;
+        this.doneStepCount = doneStepCount;
+        this.hierarchy = hierarchy;
+    }
 }
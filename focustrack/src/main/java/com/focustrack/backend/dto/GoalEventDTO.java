@@ -0,0 +1,19 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Pushed to subscribers of GET /events; clients refetch the affected goal or comments (with If-None-Match)
+@Getter
+@AllArgsConstructor
+public class GoalEventDTO {
+
+    public enum Type {
+        GOAL_UPDATED, GOAL_SHARED, GOAL_UNSHARED, COMMENT_ADDED, COMMENT_UPDATED, COMMENT_DELETED
+    }
+
+    private Type type;
+    private Long goalId;
+    private Long commentId; // null for goal events
+    private Long actorId;
+}
@@ -0,0 +1,11 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GoalOrderKey {
+    private Long goalId;
+    private int order;
+}
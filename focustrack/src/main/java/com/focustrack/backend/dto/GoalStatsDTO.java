@@ -0,0 +1,17 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GoalStatsDTO {
+    private int totalGoals;
+    private int doneGoals;
+    private int openGoals;
+    private int lowPriorityGoals;    // Priority 1-3
+    private int mediumPriorityGoals; // Priority 4-7
+    private int highPriorityGoals;   // Priority 8-10
+    private long overdueGoals;       // Open goals due before today
+    private long dueThisWeekGoals;   // Open goals due today or within the next 6 days
+}
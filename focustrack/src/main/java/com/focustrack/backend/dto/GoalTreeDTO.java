@@ -0,0 +1,13 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class GoalTreeDTO {
+    private GoalDTO goal;
+    private List<GoalStepDTO> steps; // Ordered by step order
+}
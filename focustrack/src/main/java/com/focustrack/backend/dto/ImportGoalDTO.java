@@ -0,0 +1,20 @@
+package com.focustrack.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// One NDJSON import line: a main goal with its steps (steps of steps are not allowed)
+@Getter
+@Setter
+public class ImportGoalDTO {
+    private String description;
+    private int priority;
+    private LocalDate startDate;
+    private LocalDate dueDate;
+    private int order;
+    private boolean done;
+    private List<ImportGoalDTO> steps;
+}
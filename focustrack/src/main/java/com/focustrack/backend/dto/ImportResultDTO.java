@@ -0,0 +1,22 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportResultDTO {
+    private int importedGoals;
+    private int importedSteps;
+    private int failedLines;
+    private List<LineError> errors; // the first MAX_REPORTED_ERRORS only
+
+    @Getter
+    @AllArgsConstructor
+    public static class LineError {
+        private int line;
+        private String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.focustrack.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class NewGoalStepDTO {
+    private String description;
+    private int priority;
+    private LocalDate startDate;
+    private LocalDate dueDate;
+    private int stepOrder;
+}
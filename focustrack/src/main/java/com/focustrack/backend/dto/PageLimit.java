@@ -0,0 +1,28 @@
+package com.focustrack.backend.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page size rules shared by the keyset-paged goal and sharing APIs (see {@link PageCursor}).
+ * A null limit means "everything after the cursor".
+ */
+public final class PageLimit {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private PageLimit() {
+    }
+
+    public static void check(Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Fetches one extra row so the caller knows whether another page follows
+    public static Pageable withLookahead(Integer limit) {
+        check(limit);
+        return limit == null ? Pageable.unpaged() : PageRequest.of(0, limit + 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.focustrack.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class ReorderGoalsDTO {
+    private Long parentGoalId; // null = main goals, otherwise the steps of this main goal
+
+    // Either a complete new ordering of the scope...
+    private List<Long> orderedIds;
+
+    // ...or a single move of goalId between two neighbours (one of them may be null at either end)
+    private Long goalId;
+    private Long previousId;
+    private Long nextId;
+}
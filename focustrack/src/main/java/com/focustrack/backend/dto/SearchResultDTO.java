@@ -0,0 +1,14 @@
+package com.focustrack.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String type;      // "goal" or "comment"
+    private Long id;          // goal id or comment id, depending on type
+    private Long goalId;      // the goal itself, or the goal the comment is on
+    private String text;
+    private float rank;
+}
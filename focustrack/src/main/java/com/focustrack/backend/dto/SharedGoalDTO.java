@@ -3,10 +3,21 @@ package com.focustrack.backend.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Data
 @AllArgsConstructor
 public class SharedGoalDTO {
     private GoalDTO goal;
     private String ownerEmail;
     private long ownerID;
+
+    // Target of the SharingRepository feed queries: one row per shared goal, owner, hierarchy and unread count included
+    public SharedGoalDTO(Long goalId, String description, int priority, int progress, LocalDate startDate, LocalDate dueDate,
+                         boolean isDone, int order, int stepCount, int doneStepCount, int hierarchy,
+                         String ownerEmail, Long ownerId, int unreadComments) {
+        this(new GoalDTO(goalId, description, priority, progress, startDate, dueDate, isDone, order, stepCount, doneStepCount, hierarchy),
+                ownerEmail, ownerId);
+        this.goal.setUnreadComments(unreadComments);
+    }
 }
@@ -0,0 +1,18 @@
+package com.focustrack.backend.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Constructor-expression row: a step of a shared goal, tagged with the main goal it belongs to
+@Getter
+public class SharedStepRow {
+    private final Long mainGoalId;
+    private final GoalDTO step;
+
+    public SharedStepRow(Long mainGoalId, Long id, String description, int priority, int progress, LocalDate startDate,
+                         LocalDate dueDate, boolean isDone, int order, int stepCount, int doneStepCount, int hierarchy) {
+        this.mainGoalId = mainGoalId;
+        this.step = new GoalDTO(id, description, priority, progress, startDate, dueDate, isDone, order, stepCount, doneStepCount, hierarchy);
+    }
+}
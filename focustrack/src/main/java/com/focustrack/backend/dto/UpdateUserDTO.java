@@ -15,4 +15,6 @@ public class UpdateUserDTO {
     private String password;
 
     private String description;
+
+    private Boolean remindersEnabled;
 }
@@ -0,0 +1,33 @@
+package com.focustrack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Grants read access to one user's iCalendar feed and nothing else
+@Entity
+@Table(name = "calendar_feed_tokens", uniqueConstraints = {
+        @UniqueConstraint(columnNames = "user_id") // One active feed token per user
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the token; the token itself is only returned once, when issued
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.focustrack.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// How far a user has read a goal's comments, and how many newer comments by others there are.
+// Written with set-based statements in CommentReadStateRepository whenever comments or shares change.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "comment_read_states")
+@IdClass(CommentReadState.Key.class)
+public class CommentReadState {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long goalId;
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "goal_id")
+    private Long goalId;
+
+    // Highest comment id the user has read
+    @Column(nullable = false)
+    private long lastReadCommentId;
+
+    @Column(nullable = false)
+    private int unreadCount;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long rowVersion;
+}
@@ -1,10 +1,14 @@
 package com.focustrack.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 
 @Entity
+@DynamicUpdate // Only changed columns are written, so entity saves never overwrite the step counters
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,6 +41,24 @@ public class Goal {
     @Column(nullable = false)
     private int goalOrder; // Order of steps for sorting
 
+    // Step counters of a main goal, maintained with relative UPDATEs (see GoalRepository.adjustStepCounts)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int stepCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int doneStepCount;
+
+    // Due date the last reminder was sent for (see ReminderScheduler)
+    @JsonIgnore
+    private LocalDate remindedForDueDate;
+
+    // Set by a database trigger on every insert and update; only read for ETag aggregates
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long rowVersion;
+
     public Goal(String description, int priority, LocalDate startDate, LocalDate dueDate, int goalOrder) {
         this.description = description;
         this.priority = priority;
@@ -1,5 +1,6 @@
 package com.focustrack.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -32,4 +33,9 @@ public class GoalComment {
 
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set by a database trigger on every insert and update; only read for ETag aggregates
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long rowVersion;
 }
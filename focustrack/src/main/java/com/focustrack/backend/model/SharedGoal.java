@@ -1,5 +1,6 @@
 package com.focustrack.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -31,4 +32,9 @@ public class SharedGoal {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contact_id", nullable = false)
     private User contact;
+
+    // Set by a database trigger on every insert and update; only read for ETag aggregates
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long rowVersion;
 }
@@ -2,6 +2,7 @@ package com.focustrack.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -25,6 +26,11 @@ public class User {
 
     private String description; // Optional field
 
+    // Opt-in for due-date reminder emails
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean remindersEnabled;
+
     @OneToMany(mappedBy = "sender", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Contact> contacts = new HashSet<>();
     
@@ -0,0 +1,33 @@
+package com.focustrack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running per-user counters over main goals, kept current by GoalStatsService
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_goal_stats")
+public class UserGoalStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int totalGoals;
+
+    @Column(nullable = false)
+    private int doneGoals;
+
+    @Column(nullable = false)
+    private int lowPriorityGoals; // Priority 1-3
+
+    @Column(nullable = false)
+    private int mediumPriorityGoals; // Priority 4-7
+
+    @Column(nullable = false)
+    private int highPriorityGoals; // Priority 8-10
+}
@@ -0,0 +1,21 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.model.CalendarFeedToken;
+import com.focustrack.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+
+    @Query("SELECT t.user.id FROM CalendarFeedToken t WHERE t.tokenHash = :tokenHash")
+    Optional<Long> findUserIdByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Runs immediately, so a replacement token for the same user can be inserted in the same transaction
+    @Modifying
+    @Query("DELETE FROM CalendarFeedToken t WHERE t.user = :user")
+    int deleteByUser(@Param("user") User user);
+}
@@ -0,0 +1,68 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.model.CommentReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentReadStateRepository extends JpaRepository<CommentReadState, CommentReadState.Key> {
+
+    // One more unread comment for the goal's owner and contacts, except the author
+    @Modifying
+    @Query(value = "INSERT INTO comment_read_states (user_id, goal_id, unread_count) "
+            + "SELECT w.user_id, :goalId, 1 FROM (SELECT user_id FROM user_goals WHERE goal_id = :goalId "
+            + "UNION SELECT contact_id FROM shared_goals WHERE goal_id = :goalId) w WHERE w.user_id <> :authorId "
+            + "ON CONFLICT (user_id, goal_id) DO UPDATE SET unread_count = comment_read_states.unread_count + 1",
+            nativeQuery = true)
+    int commentAdded(@Param("goalId") Long goalId, @Param("authorId") Long authorId);
+
+    // Only readers who had not read past the comment counted it
+    @Modifying
+    @Query(value = "UPDATE comment_read_states SET unread_count = unread_count - 1 "
+            + "WHERE goal_id = :goalId AND user_id <> :authorId AND last_read_comment_id < :commentId AND unread_count > 0",
+            nativeQuery = true)
+    int commentDeleted(@Param("goalId") Long goalId, @Param("commentId") Long commentId, @Param("authorId") Long authorId);
+
+    // Moves the watermark forward only and subtracts the comments by others it passed over,
+    // so comments counted by a concurrent commentAdded are kept
+    @Modifying
+    @Query(value = "INSERT INTO comment_read_states (user_id, goal_id, last_read_comment_id, unread_count) "
+            + "VALUES (:userId, :goalId, :upTo, (SELECT count(*) FROM goal_comments "
+            + "WHERE goal_id = :goalId AND id > :upTo AND author_id <> :userId)) "
+            + "ON CONFLICT (user_id, goal_id) DO UPDATE SET "
+            + "last_read_comment_id = EXCLUDED.last_read_comment_id, "
+            + "unread_count = GREATEST(comment_read_states.unread_count - (SELECT count(*) FROM goal_comments "
+            + "WHERE goal_id = :goalId AND id > comment_read_states.last_read_comment_id AND id <= :upTo "
+            + "AND author_id <> :userId), 0) "
+            + "WHERE comment_read_states.last_read_comment_id < EXCLUDED.last_read_comment_id",
+            nativeQuery = true)
+    int markRead(@Param("userId") Long userId, @Param("goalId") Long goalId, @Param("upTo") long upTo);
+
+    // A newly shared goal starts with all earlier comments by others unread
+    @Modifying
+    @Query(value = "INSERT INTO comment_read_states (user_id, goal_id, last_read_comment_id, unread_count) "
+            + "SELECT :userId, :goalId, 0, count(*) FROM goal_comments WHERE goal_id = :goalId AND author_id <> :userId "
+            + "ON CONFLICT (user_id, goal_id) DO UPDATE SET last_read_comment_id = 0, unread_count = EXCLUDED.unread_count",
+            nativeQuery = true)
+    int startReading(@Param("userId") Long userId, @Param("goalId") Long goalId);
+
+    @Modifying
+    @Query("DELETE FROM CommentReadState r WHERE r.userId = :userId AND r.goalId = :goalId")
+    int deleteByUserIdAndGoalId(@Param("userId") Long userId, @Param("goalId") Long goalId);
+
+    @Modifying
+    @Query("DELETE FROM CommentReadState r WHERE r.goalId IN :goalIds")
+    int bulkDeleteByGoalIds(@Param("goalIds") Collection<Long> goalIds);
+
+    @Query("SELECT r FROM CommentReadState r WHERE r.userId = :userId AND r.goalId IN :goalIds AND r.unreadCount > 0")
+    List<CommentReadState> findUnread(@Param("userId") Long userId, @Param("goalIds") Collection<Long> goalIds);
+
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(r), max(r.rowVersion), coalesce(sum(r.goalId), 0)) "
+            + "FROM CommentReadState r WHERE r.userId = :userId")
+    ContentVersion findVersion(@Param("userId") Long userId);
+}
@@ -0,0 +1,43 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.model.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Due messages, locked so that concurrent dispatchers (other instances) skip them instead of double-sending
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.focustrack.backend.model.EmailOutboxMessage.Status.SENT, "
+            + "m.sentAt = :sentAt, m.lastError = null, m.body = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Stays PENDING until its next retry time
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    // Attempts are exhausted; the body is dropped like on SENT, the error is kept for diagnosis
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.focustrack.backend.model.EmailOutboxMessage.Status.DEAD, "
+            + "m.lastError = :error, m.body = null WHERE m.id = :id")
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    // Oldest finished (SENT or DEAD) messages first, at most limit of them; walks idx_email_outbox_finished
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE id IN (SELECT id FROM email_outbox "
+            + "WHERE status <> 'PENDING' AND created_at < :cutoff ORDER BY created_at LIMIT :limit)",
+            nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
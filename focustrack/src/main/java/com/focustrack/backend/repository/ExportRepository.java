@@ -0,0 +1,84 @@
+package com.focustrack.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads everything an account holds, one row at a time. Each query runs on a server-side cursor
+ * with a fixed fetch size, so callers must be inside a transaction (PostgreSQL only streams with
+ * autocommit off) and must not keep the rows they are handed.
+ */
+@Repository
+public class ExportRepository {
+
+    public static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void forEachUser(Long userId, Consumer<Map<String, Object>> sink) {
+        query("SELECT id, email, description FROM users WHERE id = ?", sink, userId);
+    }
+
+    public void forEachGoal(Long userId, Consumer<Map<String, Object>> sink) {
+        query("SELECT g.id, g.description, g.priority, g.progress, g.start_date, g.due_date, g.is_done, g.goal_order, "
+                + "g.step_count, g.done_step_count, ug.hierarchy "
+                + "FROM user_goals ug JOIN goals g ON g.id = ug.goal_id WHERE ug.user_id = ? ORDER BY ug.hierarchy, g.id",
+                sink, userId);
+    }
+
+    public void forEachGoalStep(Long userId, Consumer<Map<String, Object>> sink) {
+        query("SELECT gs.main_goal_id, gs.step_goal_id FROM goal_steps gs "
+                + "JOIN user_goals ug ON ug.goal_id = gs.main_goal_id AND ug.hierarchy = 1 "
+                + "WHERE ug.user_id = ? ORDER BY gs.main_goal_id, gs.step_goal_id",
+                sink, userId);
+    }
+
+    // Shares made by the user and shares made to the user
+    public void forEachShare(Long userId, Consumer<Map<String, Object>> sink) {
+        query("SELECT sg.goal_id, sg.owner_id, o.email AS owner_email, sg.contact_id, c.email AS contact_email "
+                + "FROM shared_goals sg JOIN users o ON o.id = sg.owner_id JOIN users c ON c.id = sg.contact_id "
+                + "WHERE sg.owner_id = ? OR sg.contact_id = ? ORDER BY sg.id",
+                sink, userId, userId);
+    }
+
+    // Comments on the user's goals and comments the user wrote elsewhere
+    public void forEachComment(Long userId, Consumer<Map<String, Object>> sink) {
+        query("SELECT c.id, c.goal_id, c.author_id, u.email AS author_email, c.created_at, c.content "
+                + "FROM goal_comments c JOIN users u ON u.id = c.author_id "
+                + "WHERE c.author_id = ? OR EXISTS (SELECT 1 FROM user_goals ug WHERE ug.user_id = ? AND ug.goal_id = c.goal_id) "
+                + "ORDER BY c.goal_id, c.created_at, c.id",
+                sink, userId, userId);
+    }
+
+    private void query(String sql, Consumer<Map<String, Object>> sink, Object... args) {
+        jdbcTemplate.query(sql, (ResultSet rs) -> sink.accept(toRecord(rs)), args);
+    }
+
+    private static Map<String, Object> toRecord(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            Object value = rs.getObject(i);
+            if (value instanceof java.sql.Date date) {
+                value = date.toLocalDate();
+            } else if (value instanceof java.sql.Timestamp timestamp) {
+                value = timestamp.toLocalDateTime();
+            }
+            record.put(meta.getColumnLabel(i), value);
+        }
+        return record;
+    }
+}
@@ -1,14 +1,51 @@
 package com.focustrack.backend.repository;
 
-import com.focustrack.backend.model.Goal;
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.GoalCommentDTO;
 import com.focustrack.backend.model.GoalComment;
 import com.focustrack.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface GoalCommentRepository extends JpaRepository<GoalComment, Long> {
-    List<GoalComment> findByGoalOrderByCreatedAtAsc(Goal goal);
     Optional<GoalComment> findByIdAndAuthor(Long id, User author);
-}
\ No newline at end of file
+
+    // Comment rows with the author's email from the same statement, keyed by (createdAt, id)
+    String COMMENT_ROW = "SELECT new com.focustrack.backend.dto.GoalCommentDTO(c.id, a.email, c.createdAt, c.content) "
+            + "FROM GoalComment c JOIN c.author a WHERE c.goal.id = :goalId ";
+
+    @Query(COMMENT_ROW + "ORDER BY c.createdAt ASC, c.id ASC")
+    List<GoalCommentDTO> findThread(@Param("goalId") Long goalId);
+
+    @Query(COMMENT_ROW + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<GoalCommentDTO> findLatest(@Param("goalId") Long goalId, Pageable pageable);
+
+    @Query(COMMENT_ROW + "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) "
+            + "ORDER BY c.createdAt ASC, c.id ASC")
+    List<GoalCommentDTO> findAfter(@Param("goalId") Long goalId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") long id, Pageable pageable);
+
+    @Query(COMMENT_ROW + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<GoalCommentDTO> findBefore(@Param("goalId") Long goalId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") long id, Pageable pageable);
+
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(c), max(c.rowVersion), coalesce(sum(c.id), 0)) "
+            + "FROM GoalComment c WHERE c.goal.id = :goalId")
+    ContentVersion findCommentsVersion(@Param("goalId") Long goalId);
+
+    @Query("SELECT coalesce(max(c.id), 0) FROM GoalComment c WHERE c.goal.id = :goalId")
+    long findLatestCommentId(@Param("goalId") Long goalId);
+
+    @Modifying
+    @Query("DELETE FROM GoalComment c WHERE c.goal.id IN :goalIds")
+    int bulkDeleteByGoalIds(@Param("goalIds") Collection<Long> goalIds);
+}
@@ -2,11 +2,75 @@ package com.focustrack.backend.repository;
 
 import com.focustrack.backend.model.Goal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface GoalRepository extends JpaRepository<Goal, Long> {
+public interface GoalRepository extends JpaRepository<Goal, Long>, GoalRepositoryCustom {
 	
 //    List<Goal> findByHierarchy(int hierarchy);
 //    Optional<Goal> findByIdAndHierarchy(long id, int hierarchy);
+
+    // Atomically shifts a main goal's step counters and re-derives its progress from them
+    @Modifying
+    @Query("UPDATE Goal g SET g.stepCount = g.stepCount + :steps, g.doneStepCount = g.doneStepCount + :doneSteps, "
+            + "g.progress = CASE WHEN g.stepCount + :steps > 0 "
+            + "THEN ((g.doneStepCount + :doneSteps) * 100) / (g.stepCount + :steps) ELSE g.progress END "
+            + "WHERE g.id = :goalId")
+    int adjustStepCounts(@Param("goalId") Long goalId, @Param("steps") int steps, @Param("doneSteps") int doneSteps);
+
+    // Row-locks the goal; of two concurrent flips to the same value only the first reports 1
+    @Modifying
+    @Query("UPDATE Goal g SET g.isDone = :isDone WHERE g.id = :goalId AND g.isDone <> :isDone")
+    int updateDoneIfChanged(@Param("goalId") Long goalId, @Param("isDone") boolean isDone);
+
+    @Query("SELECT g.isDone FROM Goal g WHERE g.id = :goalId")
+    Optional<Boolean> findDoneById(@Param("goalId") Long goalId);
+
+    // Ranked matches among the user's goals and steps, goals shared with the user and their steps, and comments on
+    // goals the user may read; keyset-paginated on (rank DESC, kind, id). Both branches are served by GIN indexes.
+    @Query(value = "WITH query AS (SELECT websearch_to_tsquery('english', :q) AS tsq), "
+            + "readable AS ("
+            + "  SELECT ug.goal_id FROM user_goals ug WHERE ug.user_id = :userId"
+            + "  UNION SELECT sg.goal_id FROM shared_goals sg WHERE sg.contact_id = :userId"
+            + "  UNION SELECT gs.step_goal_id FROM goal_steps gs JOIN shared_goals sg ON sg.goal_id = gs.main_goal_id"
+            + "        WHERE sg.contact_id = :userId) "
+            + "SELECT hits.kind AS \"kind\", hits.id AS \"id\", hits.goal_id AS \"goalId\", hits.body AS \"body\", hits.rank AS \"rank\" "
+            + "FROM ("
+            + "  SELECT 0 AS kind, g.id, g.id AS goal_id, g.description AS body, ts_rank(g.search_vector, query.tsq) AS rank"
+            + "  FROM goals g JOIN readable r ON r.goal_id = g.id, query WHERE g.search_vector @@ query.tsq"
+            + "  UNION ALL"
+            + "  SELECT 1 AS kind, c.id, c.goal_id, c.content AS body, ts_rank(c.search_vector, query.tsq) AS rank"
+            + "  FROM goal_comments c, query WHERE c.search_vector @@ query.tsq"
+            + "  AND (EXISTS (SELECT 1 FROM user_goals ug WHERE ug.user_id = :userId AND ug.goal_id = c.goal_id)"
+            + "    OR EXISTS (SELECT 1 FROM shared_goals sg WHERE sg.contact_id = :userId AND sg.goal_id = c.goal_id))"
+            + ") hits "
+            + "WHERE hits.rank < :afterRank OR (hits.rank = :afterRank AND (hits.kind > :afterKind OR (hits.kind = :afterKind AND hits.id > :afterId))) "
+            + "ORDER BY hits.rank DESC, hits.kind ASC, hits.id ASC LIMIT :limit",
+            nativeQuery = true)
+    List<SearchHit> search(@Param("userId") Long userId, @Param("q") String q, @Param("afterRank") float afterRank,
+                           @Param("afterKind") int afterKind, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Keyset page of open goals due in [from, to] whose owner opted in and that were not yet reminded for this due date.
+    // Walks idx_goals_open_due on (due_date, id). The goal rows stay locked until the page's transaction has queued
+    // the emails and stamped them; other instances running the same cron skip them instead of reminding twice.
+    @Query(value = "SELECT g.id AS \"goalId\", g.description AS \"description\", g.due_date AS \"dueDate\", "
+            + "u.id AS \"userId\", u.email AS \"email\" "
+            + "FROM goals g JOIN user_goals ug ON ug.goal_id = g.id JOIN users u ON u.id = ug.user_id "
+            + "WHERE g.is_done = false AND g.due_date BETWEEN :from AND :to AND u.reminders_enabled = true "
+            + "AND (g.reminded_for_due_date IS NULL OR g.reminded_for_due_date <> g.due_date) "
+            + "AND (g.due_date, g.id) > (:afterDueDate, :afterId) "
+            + "ORDER BY g.due_date, g.id LIMIT :limit FOR UPDATE OF g SKIP LOCKED",
+            nativeQuery = true)
+    List<ReminderCandidate> findReminderCandidates(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                   @Param("afterDueDate") LocalDate afterDueDate, @Param("afterId") long afterId,
+                                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Goal g SET g.remindedForDueDate = g.dueDate WHERE g.id IN :goalIds")
+    int markReminded(@Param("goalIds") Collection<Long> goalIds);
 }
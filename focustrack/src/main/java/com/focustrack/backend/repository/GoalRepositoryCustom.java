@@ -0,0 +1,16 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.model.Goal;
+
+import java.util.List;
+import java.util.Map;
+
+public interface GoalRepositoryCustom {
+    // Writes all order keys in a single JDBC batch
+    void updateGoalOrders(Map<Long, Integer> ordersByGoalId);
+
+    // Inserts goals owned by userId as JDBC batches and assigns their ids.
+    // mainGoalIds.get(i) == null makes goals.get(i) a main goal, otherwise a step of that main goal.
+    // Step counters are written as set on each Goal, so callers inserting a main goal with its steps can fill them in first.
+    void batchInsertGoals(Long userId, List<Goal> goals, List<Long> mainGoalIds);
+}
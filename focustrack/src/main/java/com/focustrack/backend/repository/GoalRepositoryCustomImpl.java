@@ -0,0 +1,76 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.model.Goal;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class GoalRepositoryCustomImpl implements GoalRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GoalRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void updateGoalOrders(Map<Long, Integer> ordersByGoalId) {
+        if (ordersByGoalId.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = ordersByGoalId.entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("UPDATE goals SET goal_order = ? WHERE id = ?", rows);
+    }
+
+    @Override
+    public void batchInsertGoals(Long userId, List<Goal> goals, List<Long> mainGoalIds) {
+        if (goals.isEmpty()) {
+            return;
+        }
+        int stepCount = (int) mainGoalIds.stream().filter(id -> id != null).count();
+
+        // IDENTITY columns defeat JDBC batching, so take a block of ids from their sequences up front
+        List<Long> goalIds = nextIds("goals", goals.size());
+        List<Long> userGoalIds = nextIds("user_goals", goals.size());
+        List<Long> goalStepIds = nextIds("goal_steps", stepCount);
+
+        List<Object[]> goalRows = new ArrayList<>(goals.size());
+        List<Object[]> userGoalRows = new ArrayList<>(goals.size());
+        List<Object[]> goalStepRows = new ArrayList<>(stepCount);
+        int step = 0;
+        for (int i = 0; i < goals.size(); i++) {
+            Goal goal = goals.get(i);
+            goal.setId(goalIds.get(i));
+            Long mainGoalId = mainGoalIds.get(i);
+
+            goalRows.add(new Object[] { goal.getId(), goal.getDescription(), goal.getPriority(), goal.getProgress(),
+                    Date.valueOf(goal.getStartDate()), Date.valueOf(goal.getDueDate()), goal.isDone(), goal.getGoalOrder(),
+                    goal.getStepCount(), goal.getDoneStepCount() });
+            userGoalRows.add(new Object[] { userGoalIds.get(i), userId, goal.getId(), mainGoalId == null ? 1 : 2 });
+            if (mainGoalId != null) {
+                goalStepRows.add(new Object[] { goalStepIds.get(step++), mainGoalId, goal.getId() });
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO goals (id, description, priority, progress, start_date, due_date, is_done, goal_order, "
+                + "step_count, done_step_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", goalRows);
+        jdbcTemplate.batchUpdate("INSERT INTO user_goals (id, user_id, goal_id, hierarchy) VALUES (?, ?, ?, ?)", userGoalRows);
+        if (!goalStepRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO goal_steps (id, main_goal_id, step_goal_id) VALUES (?, ?, ?)", goalStepRows);
+        }
+    }
+
+    private List<Long> nextIds(String table, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)", Long.class, table, count);
+    }
+}
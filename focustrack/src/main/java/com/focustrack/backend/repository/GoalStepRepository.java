@@ -1,8 +1,16 @@
 package com.focustrack.backend.repository;
 
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.GoalOrderKey;
+import com.focustrack.backend.dto.SharedStepRow;
 import com.focustrack.backend.model.GoalStep;
 import com.focustrack.backend.model.Goal;
+import com.focustrack.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +19,45 @@ public interface GoalStepRepository extends JpaRepository<GoalStep, Long> {
     GoalStep findByMainGoalAndStepGoal(Goal mainGoal, Goal stepGoal);
     Optional<GoalStep> findByStepGoal(Goal stepGoal);
     List<GoalStep> findByMainGoalOrderByStepGoalGoalOrderAsc(Goal mainGoal);
+
+    // Steps of several main goals with their step goals fetched, ordered by step order
+    @Query("SELECT gs FROM GoalStep gs JOIN FETCH gs.stepGoal sg WHERE gs.mainGoal.id IN :mainGoalIds ORDER BY sg.goalOrder ASC, sg.id ASC")
+    List<GoalStep> findWithStepGoalByMainGoalIdIn(@Param("mainGoalIds") Collection<Long> mainGoalIds);
+
+    @Query("SELECT new com.focustrack.backend.dto.GoalOrderKey(sg.id, sg.goalOrder) FROM GoalStep gs JOIN gs.stepGoal sg "
+            + "WHERE gs.mainGoal.id = :mainGoalId AND sg.id IN :goalIds")
+    List<GoalOrderKey> findStepOrderKeys(@Param("mainGoalId") Long mainGoalId, @Param("goalIds") Collection<Long> goalIds);
+
+    @Query("SELECT new com.focustrack.backend.dto.GoalOrderKey(sg.id, sg.goalOrder) FROM GoalStep gs JOIN gs.stepGoal sg "
+            + "WHERE gs.mainGoal.id = :mainGoalId ORDER BY sg.goalOrder ASC, sg.id ASC")
+    List<GoalOrderKey> findAllStepOrderKeys(@Param("mainGoalId") Long mainGoalId);
+
+    @Query("SELECT gs.mainGoal.id FROM GoalStep gs WHERE gs.stepGoal.id = :stepGoalId")
+    Optional<Long> findMainGoalIdByStepGoalId(@Param("stepGoalId") Long stepGoalId);
+
+    @Query("SELECT gs.stepGoal.id FROM GoalStep gs WHERE gs.mainGoal.id IN :mainGoalIds")
+    List<Long> findStepGoalIdsByMainGoalIds(@Param("mainGoalIds") Collection<Long> mainGoalIds);
+
+    // Main goal of a step, only when the user owns that main goal
+    @Query("SELECT gs.mainGoal.id FROM GoalStep gs WHERE gs.stepGoal.id = :stepGoalId AND EXISTS "
+            + "(SELECT 1 FROM UserGoal ug WHERE ug.user = :user AND ug.goal = gs.mainGoal AND ug.hierarchy = 1)")
+    Optional<Long> findOwnedMainGoalIdOfStep(@Param("user") User user, @Param("stepGoalId") Long stepGoalId);
+
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(sg), max(sg.rowVersion), coalesce(sum(sg.id), 0)) "
+            + "FROM GoalStep gs JOIN gs.stepGoal sg WHERE gs.mainGoal.id = :mainGoalId")
+    ContentVersion findStepsVersion(@Param("mainGoalId") Long mainGoalId);
+
+    // Steps of the given main goals that are shared with contact, with the hierarchy from the owner's user_goals row.
+    // The join through SharedGoal also drops goals that are not shared with contact.
+    @Query("SELECT new com.focustrack.backend.dto.SharedStepRow(gs.mainGoal.id, sg.id, sg.description, sg.priority, sg.progress, "
+            + "sg.startDate, sg.dueDate, sg.isDone, sg.goalOrder, sg.stepCount, sg.doneStepCount, ug.hierarchy) "
+            + "FROM GoalStep gs JOIN gs.stepGoal sg "
+            + "JOIN SharedGoal s ON s.goal = gs.mainGoal AND s.contact = :contact "
+            + "JOIN UserGoal ug ON ug.goal = sg AND ug.user = s.owner "
+            + "WHERE gs.mainGoal.id IN :mainGoalIds ORDER BY gs.mainGoal.id ASC, sg.goalOrder ASC, sg.id ASC")
+    List<SharedStepRow> findSharedSteps(@Param("contact") User contact, @Param("mainGoalIds") Collection<Long> mainGoalIds);
+
+    @Modifying
+    @Query("DELETE FROM GoalStep gs WHERE gs.mainGoal.id IN :goalIds OR gs.stepGoal.id IN :goalIds")
+    int bulkDeleteByGoalIds(@Param("goalIds") Collection<Long> goalIds);
 }
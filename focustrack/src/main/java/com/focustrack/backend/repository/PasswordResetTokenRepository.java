@@ -1,14 +1,30 @@
 package com.focustrack.backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.focustrack.backend.model.PasswordResetToken;
 import com.focustrack.backend.model.User;
 
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByToken(String token);
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
     Optional<PasswordResetToken> findByUser(User user);
+
+    // Runs immediately, so a new token for the same user can be inserted in the same transaction
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.user = :user")
+    int deleteByUser(@Param("user") User user);
+
+    // Oldest expired tokens first, at most limit of them; walks the expiration_date index
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN "
+            + "(SELECT id FROM password_reset_tokens WHERE expiration_date < :now ORDER BY expiration_date LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -0,0 +1,12 @@
+package com.focustrack.backend.repository;
+
+import java.time.LocalDate;
+
+// One row of GoalRepository.findReminderCandidates
+public interface ReminderCandidate {
+    Long getGoalId();
+    String getDescription();
+    LocalDate getDueDate();
+    Long getUserId();
+    String getEmail();
+}
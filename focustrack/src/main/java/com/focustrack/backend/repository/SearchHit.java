@@ -0,0 +1,10 @@
+package com.focustrack.backend.repository;
+
+// One row of GoalRepository.search: a matching goal (kind 0) or comment (kind 1)
+public interface SearchHit {
+    Integer getKind();
+    Long getId();
+    Long getGoalId();
+    String getBody();
+    Float getRank();
+}
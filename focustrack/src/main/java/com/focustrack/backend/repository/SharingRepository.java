@@ -1,10 +1,17 @@
 package com.focustrack.backend.repository;
 
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.SharedGoalDTO;
 import com.focustrack.backend.model.SharedGoal;
 import com.focustrack.backend.model.Goal;
 import com.focustrack.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +22,34 @@ public interface SharingRepository extends JpaRepository<SharedGoal, Long> {
     List<SharedGoal> findByGoal(Goal goal);
     List<SharedGoal> findByOwnerAndContact(User owner, User contact);
     List<SharedGoal> findByGoalAndOwner(Goal goal, User owner);
-}
\ No newline at end of file
+
+    @Query("SELECT sg.goal.id FROM SharedGoal sg WHERE sg.contact = :contact AND sg.goal.id IN :goalIds")
+    List<Long> findSharedGoalIds(@Param("contact") User contact, @Param("goalIds") Collection<Long> goalIds);
+
+    String SHARED_GOAL_ROW = "SELECT new com.focustrack.backend.dto.SharedGoalDTO(g.id, g.description, g.priority, g.progress, "
+            + "g.startDate, g.dueDate, g.isDone, g.goalOrder, g.stepCount, g.doneStepCount, ug.hierarchy, o.email, o.id, "
+            + "coalesce(r.unreadCount, 0)) "
+            + "FROM SharedGoal sg JOIN sg.goal g JOIN sg.owner o JOIN UserGoal ug ON ug.goal = g AND ug.user = o "
+            + "LEFT JOIN CommentReadState r ON r.goalId = g.id AND r.userId = sg.contact.id ";
+
+    // Keyset pages by goal id of the goals shared with contact, each row complete in a single query
+    @Query(SHARED_GOAL_ROW + "WHERE sg.contact = :contact AND g.id > :afterGoalId ORDER BY g.id ASC")
+    List<SharedGoalDTO> findSharedWith(@Param("contact") User contact, @Param("afterGoalId") long afterGoalId, Pageable pageable);
+
+    @Query(SHARED_GOAL_ROW + "WHERE sg.owner.id = :ownerId AND sg.contact = :contact AND g.id > :afterGoalId ORDER BY g.id ASC")
+    List<SharedGoalDTO> findSharedByOwner(@Param("ownerId") Long ownerId, @Param("contact") User contact,
+                                          @Param("afterGoalId") long afterGoalId, Pageable pageable);
+
+    // Both the share rows and the shared goals feed the version
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(sg), max(sg.rowVersion) + max(g.rowVersion), coalesce(sum(sg.id), 0)) "
+            + "FROM SharedGoal sg JOIN sg.goal g WHERE sg.contact = :contact")
+    ContentVersion findSharedWithVersion(@Param("contact") User contact);
+
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(sg), max(sg.rowVersion) + max(g.rowVersion), coalesce(sum(sg.id), 0)) "
+            + "FROM SharedGoal sg JOIN sg.goal g WHERE sg.owner.id = :ownerId AND sg.contact = :contact")
+    ContentVersion findSharedByOwnerVersion(@Param("ownerId") Long ownerId, @Param("contact") User contact);
+
+    @Modifying
+    @Query("DELETE FROM SharedGoal sg WHERE sg.goal.id IN :goalIds")
+    int bulkDeleteByGoalIds(@Param("goalIds") Collection<Long> goalIds);
+}
@@ -1,15 +1,98 @@
 package com.focustrack.backend.repository;
 
+import com.focustrack.backend.dto.CalendarEntryDTO;
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.GoalOrderKey;
 import com.focustrack.backend.model.UserGoal;
 import com.focustrack.backend.model.User;
 import com.focustrack.backend.model.Goal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserGoalRepository extends JpaRepository<UserGoal, Long> {
     List<UserGoal> findByUserAndHierarchy(User user, int hierarchy);
     Optional<UserGoal> findByUserAndGoal(User user, Goal goal);
     Optional<UserGoal> findByUserAndGoalAndHierarchy(User user, Goal goal, int hierarchy);
     List<UserGoal> findByGoalIn(List<Goal> goals);
+    boolean existsByUserAndGoal_IdAndHierarchy(User user, Long goalId, int hierarchy);
+
+    // Loads the goals in the same statement, ordered like the goal list
+    @Query("SELECT ug FROM UserGoal ug JOIN FETCH ug.goal g WHERE ug.user = :user AND ug.hierarchy = :hierarchy ORDER BY g.goalOrder ASC, g.id ASC")
+    List<UserGoal> findWithGoalByUserAndHierarchy(@Param("user") User user, @Param("hierarchy") int hierarchy);
+
+    // Keyset pages of main goals after (afterOrder, afterId), sorted by (goalOrder, id)
+    @Query("SELECT ug FROM UserGoal ug JOIN FETCH ug.goal g WHERE ug.user = :user AND ug.hierarchy = 1 "
+            + "AND (g.goalOrder > :afterOrder OR (g.goalOrder = :afterOrder AND g.id > :afterId)) "
+            + "ORDER BY g.goalOrder ASC, g.id ASC")
+    List<UserGoal> findMainGoalsAfter(@Param("user") User user, @Param("afterOrder") int afterOrder,
+                                      @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT ug FROM UserGoal ug JOIN FETCH ug.goal g WHERE ug.user = :user AND ug.hierarchy = 1 AND g.isDone = false "
+            + "AND (g.goalOrder > :afterOrder OR (g.goalOrder = :afterOrder AND g.id > :afterId)) "
+            + "ORDER BY g.goalOrder ASC, g.id ASC")
+    List<UserGoal> findUnfinishedMainGoalsAfter(@Param("user") User user, @Param("afterOrder") int afterOrder,
+                                                @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.focustrack.backend.dto.GoalOrderKey(g.id, g.goalOrder) FROM UserGoal ug JOIN ug.goal g "
+            + "WHERE ug.user = :user AND ug.hierarchy = 1 AND g.id IN :goalIds")
+    List<GoalOrderKey> findMainGoalOrderKeys(@Param("user") User user, @Param("goalIds") Collection<Long> goalIds);
+
+    @Query("SELECT new com.focustrack.backend.dto.GoalOrderKey(g.id, g.goalOrder) FROM UserGoal ug JOIN ug.goal g "
+            + "WHERE ug.user = :user AND ug.hierarchy = 1 ORDER BY g.goalOrder ASC, g.id ASC")
+    List<GoalOrderKey> findAllMainGoalOrderKeys(@Param("user") User user);
+
+    // 2 = the user owns the goal, 1 = the goal is shared with the user, 0 = no access
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM user_goals WHERE user_id = :userId AND goal_id = :goalId) THEN 2 "
+            + "WHEN EXISTS (SELECT 1 FROM shared_goals WHERE contact_id = :userId AND goal_id = :goalId) THEN 1 ELSE 0 END",
+            nativeQuery = true)
+    int findAccessLevel(@Param("userId") Long userId, @Param("goalId") Long goalId);
+
+    // Users who can see the goal: its owner, contacts it is shared with, and for a step the contacts of its main goal
+    @Query(value = "SELECT user_id FROM user_goals WHERE goal_id = :goalId "
+            + "UNION SELECT contact_id FROM shared_goals WHERE goal_id = :goalId "
+            + "OR goal_id IN (SELECT main_goal_id FROM goal_steps WHERE step_goal_id = :goalId)",
+            nativeQuery = true)
+    List<Long> findWatcherIds(@Param("goalId") Long goalId);
+
+    @Query("SELECT ug FROM UserGoal ug JOIN FETCH ug.goal g WHERE ug.user = :user AND g.id = :goalId")
+    Optional<UserGoal> findWithGoalByUserAndGoalId(@Param("user") User user, @Param("goalId") Long goalId);
+
+    @Query("SELECT ug.goal.id FROM UserGoal ug WHERE ug.user = :user AND ug.hierarchy = 1 AND ug.goal.id IN :goalIds")
+    List<Long> findOwnedMainGoalIds(@Param("user") User user, @Param("goalIds") Collection<Long> goalIds);
+
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(g), max(g.rowVersion), coalesce(sum(g.id), 0)) "
+            + "FROM UserGoal ug JOIN ug.goal g WHERE ug.user = :user AND ug.hierarchy = 1")
+    ContentVersion findMainGoalsVersion(@Param("user") User user);
+
+    // Goals and steps alike
+    @Query("SELECT new com.focustrack.backend.dto.ContentVersion(count(g), max(g.rowVersion), coalesce(sum(g.id), 0)) "
+            + "FROM UserGoal ug JOIN ug.goal g WHERE ug.user = :user")
+    ContentVersion findAllGoalsVersion(@Param("user") User user);
+
+    // Goals and steps starting or due within [from, to]; served by the goals(due_date) / goals(start_date) indexes
+    @Query("SELECT ug FROM UserGoal ug JOIN FETCH ug.goal g WHERE ug.user = :user "
+            + "AND (g.dueDate BETWEEN :from AND :to OR g.startDate BETWEEN :from AND :to) "
+            + "ORDER BY g.dueDate ASC, g.id ASC")
+    List<UserGoal> findWithGoalByUserAndDateWindow(@Param("user") User user, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Server-side cursor over every dated goal of the user; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.focustrack.backend.dto.CalendarEntryDTO(g.id, g.description, g.startDate, g.dueDate, g.isDone, ug.hierarchy) "
+            + "FROM UserGoal ug JOIN ug.goal g WHERE ug.user.id = :userId AND g.dueDate IS NOT NULL")
+    Stream<CalendarEntryDTO> streamCalendarEntries(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserGoal ug WHERE ug.goal.id IN :goalIds")
+    int bulkDeleteByGoalIds(@Param("goalIds") Collection<Long> goalIds);
 }
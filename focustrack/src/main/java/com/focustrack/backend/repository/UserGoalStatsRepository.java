@@ -0,0 +1,54 @@
+package com.focustrack.backend.repository;
+
+import com.focustrack.backend.model.UserGoalStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UserGoalStatsRepository extends JpaRepository<UserGoalStats, Long> {
+
+    @Modifying
+    @Query(value = "UPDATE user_goal_stats SET total_goals = total_goals + :total, done_goals = done_goals + :done, "
+            + "low_priority_goals = low_priority_goals + :low, medium_priority_goals = medium_priority_goals + :medium, "
+            + "high_priority_goals = high_priority_goals + :high WHERE user_id = :userId", nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("total") int total, @Param("done") int done,
+                   @Param("low") int low, @Param("medium") int medium, @Param("high") int high);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_goal_due_counts (user_id, due_date, open_goals) VALUES (:userId, :dueDate, :delta) "
+            + "ON CONFLICT (user_id, due_date) DO UPDATE SET open_goals = user_goal_due_counts.open_goals + EXCLUDED.open_goals",
+            nativeQuery = true)
+    int applyDueDelta(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate, @Param("delta") int delta);
+
+    // Recomputes both summary tables of one user from user_goals/goals; used once per user, when no summary row exists yet
+    @Modifying
+    @Query(value = "INSERT INTO user_goal_stats (user_id, total_goals, done_goals, low_priority_goals, medium_priority_goals, high_priority_goals) "
+            + "SELECT :userId, count(*), count(*) FILTER (WHERE g.is_done), count(*) FILTER (WHERE g.priority <= 3), "
+            + "count(*) FILTER (WHERE g.priority BETWEEN 4 AND 7), count(*) FILTER (WHERE g.priority >= 8) "
+            + "FROM user_goals ug JOIN goals g ON g.id = ug.goal_id WHERE ug.user_id = :userId AND ug.hierarchy = 1 "
+            + "ON CONFLICT (user_id) DO UPDATE SET total_goals = EXCLUDED.total_goals, done_goals = EXCLUDED.done_goals, "
+            + "low_priority_goals = EXCLUDED.low_priority_goals, medium_priority_goals = EXCLUDED.medium_priority_goals, "
+            + "high_priority_goals = EXCLUDED.high_priority_goals", nativeQuery = true)
+    int rebuildSummary(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_goal_due_counts WHERE user_id = :userId", nativeQuery = true)
+    int deleteDueCounts(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_goal_due_counts (user_id, due_date, open_goals) "
+            + "SELECT :userId, g.due_date, count(*) FROM user_goals ug JOIN goals g ON g.id = ug.goal_id "
+            + "WHERE ug.user_id = :userId AND ug.hierarchy = 1 AND NOT g.is_done GROUP BY g.due_date", nativeQuery = true)
+    int rebuildDueCounts(@Param("userId") Long userId);
+
+    // [overdue, due between today and weekEnd]
+    @Query(value = "SELECT COALESCE(SUM(open_goals) FILTER (WHERE due_date < :today), 0), "
+            + "COALESCE(SUM(open_goals) FILTER (WHERE due_date BETWEEN :today AND :weekEnd), 0) "
+            + "FROM user_goal_due_counts WHERE user_id = :userId", nativeQuery = true)
+    List<Object[]> sumOpenGoalsByDueWindow(@Param("userId") Long userId, @Param("today") LocalDate today,
+                                           @Param("weekEnd") LocalDate weekEnd);
+}
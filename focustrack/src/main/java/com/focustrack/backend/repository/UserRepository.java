@@ -4,9 +4,21 @@ package com.focustrack.backend.repository;
 
 import com.focustrack.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findById(Long id);
+
+    // Prefix matches first (text_pattern_ops index), then trigram matches (GIN index) by similarity.
+    // prefix must already have LIKE wildcards escaped.
+    @Query(value = "SELECT u.* FROM users u "
+            + "WHERE lower(u.email) LIKE :prefix || '%' OR lower(u.email) % :term "
+            + "ORDER BY (lower(u.email) LIKE :prefix || '%') DESC, similarity(lower(u.email), :term) DESC, u.email ASC "
+            + "LIMIT :limit",
+            nativeQuery = true)
+    List<User> searchByEmail(@Param("prefix") String prefix, @Param("term") String term, @Param("limit") int limit);
 }
@@ -0,0 +1,59 @@
+package com.focustrack.backend.security;
+
+import com.focustrack.backend.cache.BoundedCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Remembers tokens that already passed signature and claim validation.
+ * Entries are keyed by a SHA-256 digest of the raw token and never outlive the token's own expiry.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final BoundedCache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, BoundedCache<String, Jwt> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Optional<Jwt> cached = cache.get(key);
+        if (cached.isPresent()) {
+            Instant expiresAt = cached.get().getExpiresAt();
+            if (expiresAt == null || expiresAt.isAfter(Instant.now())) {
+                return cached.get();
+            }
+            cache.invalidate(key);
+        }
+
+        Jwt jwt = delegate.decode(token); // Throws for invalid tokens, which are never cached
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt, jwt.getExpiresAt());
+        } else {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
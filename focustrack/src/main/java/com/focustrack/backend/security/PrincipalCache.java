@@ -0,0 +1,56 @@
+package com.focustrack.backend.security;
+
+import com.focustrack.backend.cache.BoundedCache;
+import com.focustrack.backend.cache.CacheRegistry;
+import com.focustrack.backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caches the User behind a JWT subject so authenticated calls don't reload the row every time.
+ * Lookups are memoized on the current request first, then in a bounded cache shared across requests.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalCache.class.getName() + ".user";
+
+    private final BoundedCache<String, User> cache;
+
+    @Autowired
+    public PrincipalCache(CacheRegistry cacheRegistry,
+                          @Value("${focustrack.cache.principal.max-size:10000}") int maxSize,
+                          @Value("${focustrack.cache.principal.ttl:PT5M}") Duration ttl) {
+        this.cache = cacheRegistry.create("principals", maxSize, ttl);
+    }
+
+    public User get(String subject, Function<String, User> loader) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Object memo = request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (memo instanceof User user && subject.equals(String.valueOf(user.getId()))) {
+                return user;
+            }
+        }
+
+        User user = cache.get(subject, loader);
+        if (request != null && user != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(String.valueOf(userId));
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
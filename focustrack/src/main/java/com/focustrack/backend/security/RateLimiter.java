@@ -0,0 +1,60 @@
+package com.focustrack.backend.security;
+
+import com.focustrack.backend.cache.BoundedCache;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token bucket. Buckets live in a bounded cache, so idle callers cost nothing
+ * and the number of tracked callers can never exceed the cache size.
+ */
+public class RateLimiter {
+
+    private final BoundedCache<Object, Bucket> buckets;
+    private final int capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(BoundedCache<Object, Bucket> buckets, int capacity, double refillPerSecond) {
+        this(buckets, capacity, refillPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(BoundedCache<Object, Bucket> buckets, int capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.buckets = buckets;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoClock = nanoClock;
+    }
+
+    // Takes one token for the key; false means the caller should be answered with 429
+    public boolean tryAcquire(Object key) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+        boolean acquired = bucket.tryAcquire(now, capacity, tokensPerNano);
+        buckets.put(key, bucket); // re-put so an active caller's bucket does not expire mid-burst
+        return acquired;
+    }
+
+    public static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now, int capacity, double tokensPerNano) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
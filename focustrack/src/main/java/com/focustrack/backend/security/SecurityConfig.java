@@ -1,5 +1,8 @@
 package com.focustrack.backend.security;
 
+import com.focustrack.backend.cache.CacheRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,10 +12,16 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 
+import java.time.Duration;
 import javax.crypto.SecretKey;
 import org.springframework.security.config.http.SessionCreationPolicy;
 
@@ -20,15 +29,32 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // GET endpoints consumed by clients that cannot set an Authorization header (browser EventSource)
+    private static final RequestMatcher QUERY_TOKEN_ENDPOINTS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/events", "GET"));
+
     private final JwtUtil jwtUtil;
 
     public SecurityConfig(JwtUtil jwtUtil) {
         this.jwtUtil = jwtUtil;
     }
 
+    // Single decoder used by the resource server; verified tokens are cached until they expire
+    @Bean
+    public JwtDecoder jwtDecoder(CacheRegistry cacheRegistry,
+                                 @Value("${focustrack.cache.jwt.max-size:10000}") int maxSize,
+                                 @Value("${focustrack.cache.jwt.ttl:PT10H}") Duration ttl) {
+        JwtDecoder nimbus = NimbusJwtDecoder.withSecretKey(jwtUtil.getSecretKey()).macAlgorithm(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS256).build();
+        return new CachingJwtDecoder(nimbus, cacheRegistry.create("verified-tokens", maxSize, ttl));
+    }
+
+    // Tokens are read from the header everywhere; the access_token query parameter is accepted only on QUERY_TOKEN_ENDPOINTS
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withSecretKey(jwtUtil.getSecretKey()).macAlgorithm(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS256).build();
+    public BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerOnly = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver headerOrQuery = new DefaultBearerTokenResolver();
+        headerOrQuery.setAllowUriQueryParameter(true);
+        return request -> QUERY_TOKEN_ENDPOINTS.matches(request) ? headerOrQuery.resolve(request) : headerOnly.resolve(request);
     }
 
     @Bean
@@ -48,6 +74,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll() // ✅ Allow OPTIONS
+                // Streamed responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers(
                     "/users/register",
                     "/users/login",
@@ -56,6 +84,8 @@ public class SecurityConfig {
                     "/auth/forgot-password",
                     "/auth/reset-password"
                 ).permitAll()
+                // Authorized by its own read-only feed token, checked in CalendarController
+                .requestMatchers(org.springframework.http.HttpMethod.GET, "/goals/calendar.ics").permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
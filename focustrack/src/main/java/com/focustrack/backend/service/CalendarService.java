@@ -0,0 +1,126 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.CalendarEntryDTO;
+import com.focustrack.backend.dto.GoalDTO;
+import com.focustrack.backend.model.CalendarFeedToken;
+import com.focustrack.backend.model.User;
+import com.focustrack.backend.repository.CalendarFeedTokenRepository;
+import com.focustrack.backend.repository.UserGoalRepository;
+import com.focustrack.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class CalendarService {
+
+    public static final int MAX_WINDOW_DAYS = 366;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final UserGoalRepository userGoalRepository;
+    private final UserRepository userRepository;
+    private final CalendarFeedTokenRepository feedTokenRepository;
+    private final UserService userService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public CalendarService(UserGoalRepository userGoalRepository, UserRepository userRepository,
+                           CalendarFeedTokenRepository feedTokenRepository, UserService userService,
+                           PlatformTransactionManager transactionManager) {
+        this.userGoalRepository = userGoalRepository;
+        this.userRepository = userRepository;
+        this.feedTokenRepository = feedTokenRepository;
+        this.userService = userService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Goals and steps that start or are due within [from, to], ordered by due date
+    public List<GoalDTO> getCalendar(LocalDate from, LocalDate to) {
+        User user = userService.getAuthenticatedUser();
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) > MAX_WINDOW_DAYS) {
+            throw new RuntimeException("from must not be after to, and the window may span at most " + MAX_WINDOW_DAYS + " days");
+        }
+        return userGoalRepository.findWithGoalByUserAndDateWindow(user, from, to)
+                .stream()
+                .map(userGoal -> new GoalDTO(userGoal.getGoal(), userGoal))
+                .collect(Collectors.toList());
+    }
+
+    // Replaces any earlier feed token of the user; the returned token is not stored and cannot be shown again
+    @Transactional
+    public String issueFeedToken() {
+        User user = userService.getAuthenticatedUser();
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        feedTokenRepository.deleteByUser(user);
+        CalendarFeedToken feedToken = new CalendarFeedToken();
+        feedToken.setTokenHash(UserService.hashToken(token));
+        feedToken.setUser(user);
+        feedToken.setCreatedAt(LocalDateTime.now());
+        feedTokenRepository.save(feedToken);
+        return token;
+    }
+
+    @Transactional
+    public void revokeFeedToken() {
+        feedTokenRepository.deleteByUser(userService.getAuthenticatedUser());
+    }
+
+    // Empty when the token is unknown or was revoked
+    public Optional<Long> findFeedUserId(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return feedTokenRepository.findUserIdByTokenHash(UserService.hashToken(token));
+    }
+
+    public String getFeedETag(Long userId) {
+        return ETags.of("calendar", userGoalRepository.findAllGoalsVersion(userRepository.getReferenceById(userId)), userId);
+    }
+
+    // Runs on the async response thread, so the user is resolved by the caller beforehand.
+    // Rows come off a server-side cursor and are written straight out: memory use does not grow with the feed.
+    public void writeFeed(Long userId, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ICalendarWriter calendar = new ICalendarWriter(writer, Instant.now());
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CalendarEntryDTO> entries = userGoalRepository.streamCalendarEntries(userId)) {
+                calendar.begin("FocusTrack goals");
+                entries.forEach(entry -> {
+                    try {
+                        calendar.event(entry);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                calendar.end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.ContentVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Builds strong ETags from the version aggregate of the rows behind a response and the
+ * request parameters that select or shape it, so a 304 can be answered without loading entities.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String scope, ContentVersion version, Object... params) {
+        String source = scope + ':' + version.getCount() + ':' + version.getMaxRowVersion() + ':' + version.getIdSum()
+                + ':' + Arrays.deepToString(params);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
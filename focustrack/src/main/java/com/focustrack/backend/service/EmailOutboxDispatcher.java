@@ -0,0 +1,171 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.model.EmailOutboxMessage;
+import com.focustrack.backend.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends queued emails in batches. Each batch is claimed in a short transaction (row locks with SKIP LOCKED,
+ * then a lease on next_attempt_at), sent over a single SMTP connection with no transaction open, and its
+ * outcome recorded in a second short transaction. Failures are retried with exponential backoff until
+ * max-attempts, after which the message is marked DEAD. A crash mid-send leaves the lease to expire,
+ * so delivery is at least once. SENT and DEAD messages lose their body, which may hold a reset link.
+ * Each poll sends at most max-per-poll messages, so one instance sends at most max-per-poll per poll interval
+ * however large the backlog (e.g. a burst of reminders); the rest waits for the following polls.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxPerPoll;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${focustrack.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${focustrack.mail.outbox.max-per-poll:200}") int maxPerPoll,
+                                 @Value("${focustrack.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${focustrack.mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${focustrack.mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                                 @Value("${focustrack.mail.outbox.lease:PT5M}") Duration lease) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (batchSize <= 0 || maxPerPoll <= 0) {
+            throw new IllegalArgumentException("focustrack.mail.outbox.batch-size and max-per-poll must be positive");
+        }
+        this.batchSize = batchSize;
+        this.maxPerPoll = maxPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    // Sends due messages one batch at a time until the backlog or the poll's budget runs out
+    @Scheduled(fixedDelayString = "${focustrack.mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        int budget = maxPerPoll;
+        while (budget > 0) {
+            int limit = Math.min(batchSize, budget);
+            int dispatched = dispatchBatch(limit);
+            budget -= dispatched;
+            if (dispatched < limit) {
+                return;
+            }
+        }
+    }
+
+    int dispatchBatch() {
+        return dispatchBatch(batchSize);
+    }
+
+    int dispatchBatch(int limit) {
+        List<EmailOutboxMessage> batch = transactionTemplate.execute(status -> claim(LocalDateTime.now(), limit));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> failures = send(batch);
+        List<Long> sentIds = new ArrayList<>();
+        batch.stream().filter(message -> !failures.containsKey(message.getId())).forEach(message -> sentIds.add(message.getId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.markSent(sentIds, now);
+            }
+            for (EmailOutboxMessage message : batch) {
+                String error = failures.get(message.getId());
+                if (error == null) {
+                    continue;
+                }
+                if (message.getAttempts() >= maxAttempts) {
+                    log.warn("Giving up on email {} to {} after {} attempts: {}", message.getId(), message.getRecipient(), message.getAttempts(), error);
+                    emailOutboxRepository.markDead(message.getId(), truncate(error));
+                } else {
+                    emailOutboxRepository.markFailed(message.getId(), now.plus(backoff(message.getAttempts())), truncate(error));
+                }
+            }
+        });
+        return batch.size();
+    }
+
+    // Counts the attempt and leases the rows, so they are not picked up again while being sent
+    private List<EmailOutboxMessage> claim(LocalDateTime now, int limit) {
+        List<EmailOutboxMessage> due = emailOutboxRepository.lockDue(now, limit);
+        for (EmailOutboxMessage message : due) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    // One send call per batch: JavaMailSender delivers all of its messages over one connection
+    private Map<Long, String> send(List<EmailOutboxMessage> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutboxMessage outbox = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(outbox.getRecipient());
+            message.setSubject(outbox.getSubject());
+            message.setText(outbox.getBody());
+            messages[i] = message;
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (int i = 0; i < messages.length; i++) {
+                // No per-message detail means the whole batch failed (e.g. the connection could not be opened)
+                Exception cause = failed.isEmpty() ? e : failed.get(messages[i]);
+                if (cause != null) {
+                    failures.put(batch.get(i).getId(), String.valueOf(cause.getMessage()));
+                }
+            }
+        } catch (MailException e) {
+            batch.forEach(message -> failures.put(message.getId(), String.valueOf(e.getMessage())));
+        }
+        return failures;
+    }
+
+    // initialBackoff, doubled per failed attempt, capped at maxBackoff
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
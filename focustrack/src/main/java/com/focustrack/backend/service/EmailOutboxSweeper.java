@@ -0,0 +1,42 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Deletes sent and dead outbox messages past the retention period, batch-size rows per transaction
+@Component
+public class EmailOutboxSweeper {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    @Autowired
+    public EmailOutboxSweeper(EmailOutboxRepository emailOutboxRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${focustrack.mail.outbox.retention:P7D}") Duration retention,
+                              @Value("${focustrack.mail.outbox.sweep.batch-size:1000}") int batchSize) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${focustrack.mail.outbox.sweep.interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> emailOutboxRepository.deleteFinishedBefore(cutoff, batchSize));
+        } while (deleted != null && deleted == batchSize);
+    }
+}
@@ -1,18 +1,27 @@
 package com.focustrack.backend.service;
 
+import com.focustrack.backend.model.EmailOutboxMessage;
+import com.focustrack.backend.repository.EmailOutboxRepository;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository emailOutboxRepository) {
         this.mailSender = mailSender;
+        this.emailOutboxRepository = emailOutboxRepository;
     }
 
+    // Sends synchronously on the calling thread; request handlers should use enqueue instead
     public void sendEmail(String to, String subject, String text) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
@@ -20,4 +29,15 @@ public class EmailService {
         message.setText(text);
         mailSender.send(message);
     }
+
+    // Queues the email in the caller's transaction: it is sent by EmailOutboxDispatcher only if that transaction commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, String subject, String text) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(text);
+        message.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(message);
+    }
 }
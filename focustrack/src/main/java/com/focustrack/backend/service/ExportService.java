@@ -0,0 +1,74 @@
+package com.focustrack.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focustrack.backend.repository.ExportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Writes an account as NDJSON: one {"type": ..., ...} object per line, in user, goal, step, share, comment order
+@Service
+public class ExportService {
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // READ COMMITTED would give each section's query its own snapshot
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // Runs on the async response thread; one REPEATABLE READ transaction gives every section the same snapshot
+    public void writeExport(Long userId, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        readOnlyTransaction.executeWithoutResult(status -> {
+            exportRepository.forEachUser(userId, lines(writer, "user"));
+            exportRepository.forEachGoal(userId, lines(writer, "goal"));
+            exportRepository.forEachGoalStep(userId, lines(writer, "goal_step"));
+            exportRepository.forEachShare(userId, lines(writer, "share"));
+            exportRepository.forEachComment(userId, lines(writer, "comment"));
+        });
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Consumer<Map<String, Object>> lines(Writer writer, String type) {
+        return row -> {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("type", type);
+            record.putAll(row);
+            try {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize " + type + " row", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.cache.BoundedCache;
+import com.focustrack.backend.cache.CacheRegistry;
+import com.focustrack.backend.repository.UserGoalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Answers "what may this user do with this goal" with a single EXISTS query,
+ * remembered per (user, goal) in a bounded cache.
+ * Sharing changes and goal creation/deletion must invalidate the affected entries.
+ */
+@Service
+public class GoalAccessService {
+
+    public enum Access {
+        NONE, SHARED, OWNER;
+
+        public boolean canRead() {
+            return this != NONE;
+        }
+
+        public boolean canWrite() {
+            return this == OWNER;
+        }
+    }
+
+    private record AclKey(Long userId, Long goalId) {
+    }
+
+    private final UserGoalRepository userGoalRepository;
+    private final BoundedCache<AclKey, Access> cache;
+
+    @Autowired
+    public GoalAccessService(UserGoalRepository userGoalRepository, CacheRegistry cacheRegistry,
+                             @Value("${focustrack.cache.goal-acl.max-size:50000}") int maxSize,
+                             @Value("${focustrack.cache.goal-acl.ttl:PT10M}") Duration ttl) {
+        this.userGoalRepository = userGoalRepository;
+        this.cache = cacheRegistry.create("goal-acl", maxSize, ttl);
+    }
+
+    public Access accessOf(Long userId, Long goalId) {
+        return cache.get(new AclKey(userId, goalId), key -> switch (userGoalRepository.findAccessLevel(userId, goalId)) {
+            case 2 -> Access.OWNER;
+            case 1 -> Access.SHARED;
+            default -> Access.NONE;
+        });
+    }
+
+    // Also dropped again after commit: a read racing the uncommitted change could otherwise cache the old access
+    public void invalidate(Long userId, Long goalId) {
+        AclKey key = new AclKey(userId, goalId);
+        cache.invalidate(key);
+        afterCommit(() -> cache.invalidate(key));
+    }
+
+    public void invalidateGoals(Collection<Long> goalIds) {
+        Set<Long> ids = Set.copyOf(goalIds);
+        cache.invalidateIf(key -> ids.contains(key.goalId()));
+        afterCommit(() -> cache.invalidateIf(key -> ids.contains(key.goalId())));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
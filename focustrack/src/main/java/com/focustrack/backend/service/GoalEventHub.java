@@ -0,0 +1,203 @@
+package com.focustrack.backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of server-sent events to the connected users.
+ * Every subscriber has a bounded buffer drained by a small delivery pool, so publishers never block on a socket;
+ * a subscriber whose buffer overflows is disconnected and is expected to reconnect and refetch.
+ * Events are not replayed across reconnects.
+ */
+@Component
+public class GoalEventHub implements MeterBinder {
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong nextEventId = new AtomicLong();
+    private final Executor executor;
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final long timeoutMillis;
+
+    @Autowired
+    public GoalEventHub(@Value("${focustrack.events.delivery-threads:4}") int deliveryThreads,
+                        @Value("${focustrack.events.buffer-size:64}") int bufferSize,
+                        @Value("${focustrack.events.max-subscriptions-per-user:5}") int maxPerUser,
+                        @Value("${focustrack.events.timeout:PT30M}") Duration timeout) {
+        this(Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-delivery");
+            thread.setDaemon(true);
+            return thread;
+        }), bufferSize, maxPerUser, timeout);
+    }
+
+    GoalEventHub(Executor executor, int bufferSize, int maxPerUser, Duration timeout) {
+        if (bufferSize <= 0 || maxPerUser <= 0) {
+            throw new IllegalArgumentException("focustrack.events.buffer-size and max-subscriptions-per-user must be positive");
+        }
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    // The oldest connection of the user is closed once maxPerUser is exceeded
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis), bufferSize);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        Set<Subscriber> userSubscribers = subscribers.compute(userId, (key, current) -> {
+            Set<Subscriber> set = current == null ? new CopyOnWriteArraySet<>() : current;
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        if (userSubscribers.size() > maxPerUser) {
+            userSubscribers.stream().findFirst().ifPresent(this::evict);
+        }
+        // Commits the response so the client sees the stream open before the first event
+        enqueue(subscriber, SseEmitter.event().comment("connected").reconnectTime(5000).build());
+        return subscriber.emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return subscriberCount.get() > 0;
+    }
+
+    public void publish(Collection<Long> userIds, String name, String json) {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(nextEventId.incrementAndGet()))
+                .name(name)
+                .data(json)
+                .build();
+        for (Long userId : userIds) {
+            Set<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers != null) {
+                userSubscribers.forEach(subscriber -> enqueue(subscriber, frame));
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${focustrack.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> enqueue(subscriber, frame)));
+    }
+
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!subscriber.buffer.offer(frame)) {
+            evict(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, so frames are written in order
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(frame);
+                } catch (Exception e) {
+                    remove(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            evictionCount.incrementAndGet();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.userId, (key, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+            subscriber.buffer.clear();
+        }
+        return removed[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("focustrack.events.subscribers", this, GoalEventHub::subscriberCount)
+                .register(registry);
+        FunctionCounter.builder("focustrack.events.evictions", this, GoalEventHub::evictionCount)
+                .register(registry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.focustrack.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focustrack.backend.dto.GoalEventDTO;
+import com.focustrack.backend.repository.UserGoalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes goal and comment changes to {@link GoalEventHub}.
+ * Recipients are resolved inside the caller's transaction, so they reflect the change being made;
+ * delivery waits for the commit and is dropped on rollback.
+ */
+@Component
+public class GoalEvents {
+
+    public record Published(Set<Long> recipients, GoalEventDTO event) {
+    }
+
+    private final ApplicationEventPublisher publisher;
+    private final UserGoalRepository userGoalRepository;
+    private final GoalEventHub hub;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public GoalEvents(ApplicationEventPublisher publisher, UserGoalRepository userGoalRepository,
+                      GoalEventHub hub, ObjectMapper objectMapper) {
+        this.publisher = publisher;
+        this.userGoalRepository = userGoalRepository;
+        this.hub = hub;
+        this.objectMapper = objectMapper;
+    }
+
+    // alsoNotify covers users who just lost access, e.g. the contact of an unshared goal
+    public void goalChanged(GoalEventDTO.Type type, Long actorId, Long goalId, Long commentId, Long... alsoNotify) {
+        // Nobody is listening: skip the recipient query
+        if (!hub.hasSubscribers()) {
+            return;
+        }
+        Set<Long> recipients = new HashSet<>(userGoalRepository.findWatcherIds(goalId));
+        recipients.addAll(List.of(alsoNotify));
+        publisher.publishEvent(new Published(recipients, new GoalEventDTO(type, goalId, commentId, actorId)));
+    }
+
+    // Runs after commit, or straight away when the change was made outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void deliver(Published published) {
+        try {
+            hub.publish(published.recipients(), published.event().getType().name(),
+                    objectMapper.writeValueAsString(published.event()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize goal event", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.GoalOrderKey;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * Sparse order keys for goals and steps.
+ * Keys are spaced GAP apart, so a single move usually takes the midpoint of its new
+ * neighbours and rewrites one row; only when two neighbours are adjacent is the scope re-spaced.
+ */
+final class GoalOrdering {
+
+    static final int GAP = 1024;
+
+    private GoalOrdering() {
+    }
+
+    // Key strictly between the two neighbours (null = list boundary), or empty when there is no room left
+    static OptionalInt between(Integer previous, Integer next) {
+        long low = previous != null ? previous : (next != null ? (long) next - 2L * GAP : 0L);
+        long high = next != null ? next : low + 2L * GAP;
+        if (high - low < 2 || low < Integer.MIN_VALUE || high > Integer.MAX_VALUE) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of((int) (low + (high - low) / 2));
+    }
+
+    // Evenly spaced keys for the given ordering; only ids whose key actually changes are returned
+    static Map<Long, Integer> respace(List<GoalOrderKey> current, List<Long> orderedIds) {
+        Map<Long, Integer> currentKeys = new HashMap<>();
+        current.forEach(key -> currentKeys.put(key.getGoalId(), key.getOrder()));
+
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            Long goalId = orderedIds.get(i);
+            int key = (i + 1) * GAP;
+            if (!Objects.equals(currentKeys.get(goalId), key)) {
+                changes.put(goalId, key);
+            }
+        }
+        return changes;
+    }
+}
@@ -3,35 +3,71 @@ package com.focustrack.backend.service;
 import com.focustrack.backend.model.*;
 import com.focustrack.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.stream.Collectors;
 
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.CursorPage;
 import com.focustrack.backend.dto.GoalDTO;
+import com.focustrack.backend.dto.GoalEventDTO;
+import com.focustrack.backend.dto.GoalOrderKey;
+import com.focustrack.backend.dto.GoalStatsDTO;
 import com.focustrack.backend.dto.GoalStepDTO;
+import com.focustrack.backend.dto.GoalTreeDTO;
+import com.focustrack.backend.dto.NewGoalStepDTO;
+import com.focustrack.backend.dto.PageCursor;
+import com.focustrack.backend.dto.PageLimit;
+import com.focustrack.backend.dto.ReorderGoalsDTO;
 import com.focustrack.backend.dto.UpdateGoalDTO;
 
 @Service
 public class GoalService {
+
+    public static final int MAX_BATCH_STEPS = 500;
     
     private final GoalRepository goalRepository;
     private final UserGoalRepository userGoalRepository;
     private final GoalStepRepository goalStepRepository;
+    private final SharingRepository sharingRepository;
+    private final GoalCommentRepository goalCommentRepository;
+    private final CommentReadStateRepository commentReadStateRepository;
     private final UserService userService;
+    private final GoalStatsService goalStatsService;
+    private final GoalAccessService goalAccessService;
+    private final GoalEvents goalEvents;
 
     @Autowired
     public GoalService(GoalRepository goalRepository, UserGoalRepository userGoalRepository, 
-                        GoalStepRepository goalStepRepository, UserService userService) {
+                        GoalStepRepository goalStepRepository, SharingRepository sharingRepository,
+                        GoalCommentRepository goalCommentRepository, CommentReadStateRepository commentReadStateRepository,
+                        UserService userService,
+                        GoalStatsService goalStatsService, GoalAccessService goalAccessService,
+                        GoalEvents goalEvents) {
         this.goalRepository = goalRepository;
         this.userGoalRepository = userGoalRepository;
         this.goalStepRepository = goalStepRepository;
+        this.sharingRepository = sharingRepository;
+        this.goalCommentRepository = goalCommentRepository;
+        this.commentReadStateRepository = commentReadStateRepository;
         this.userService = userService;
+        this.goalStatsService = goalStatsService;
+        this.goalAccessService = goalAccessService;
+        this.goalEvents = goalEvents;
     }
 
     // Create a new goal (hierarchy 1)
+    @Transactional
     public Goal createGoal(String description, int priority, LocalDate startDate, LocalDate dueDate, int order) {
         User user = userService.getAuthenticatedUser();
         Goal goal = new Goal(description, priority, startDate, dueDate, order);
@@ -43,14 +79,22 @@ public class GoalService {
         userGoal.setHierarchy(1);  // Hierarchy 1 (Main Goal)
         userGoalRepository.save(userGoal);
 
+        goalStatsService.goalsAdded(user.getId(), List.of(goal));
+        goalAccessService.invalidate(user.getId(), goal.getId());
+
         return goal;
     }
 
     // Add a sub-goal (hierarchy 2)
+    @Transactional
     public Goal addGoalStep(Long mainGoalId, String description, int priority, LocalDate startDate, LocalDate dueDate, int stepOrder) {
     	User user = userService.getAuthenticatedUser();
-        Goal mainGoal = goalRepository.findById(mainGoalId)
-                .orElseThrow(() -> new RuntimeException("Main Goal not found!"));
+        // Checked before any insert: the step counters of someone else's goal, or of a step, must not move
+        if (!userGoalRepository.existsByUserAndGoal_IdAndHierarchy(user, mainGoalId, 1)) {
+            throw new RuntimeException(goalRepository.existsById(mainGoalId)
+                    ? "Goal not assigned to user or it's not a main Goal!" : "Main Goal not found!");
+        }
+        Goal mainGoal = goalRepository.getReferenceById(mainGoalId);
 
         Goal stepGoal = new Goal(description, priority, startDate, dueDate, stepOrder); 
         stepGoal = goalRepository.save(stepGoal);
@@ -66,30 +110,85 @@ public class GoalService {
         userGoal.setHierarchy(2);  // Hierarchy 2 (step of a goal)
         userGoalRepository.save(userGoal);
 
+        goalRepository.adjustStepCounts(mainGoalId, 1, 0);
+        goalAccessService.invalidate(user.getId(), stepGoal.getId());
         return stepGoal;
     }
 
+    // Add several steps to one main goal in a single transaction, using batched inserts
+    @Transactional
+    public List<Goal> addGoalSteps(Long mainGoalId, List<NewGoalStepDTO> steps) {
+        User user = userService.getAuthenticatedUser();
+        if (steps == null || steps.isEmpty() || steps.size() > MAX_BATCH_STEPS) {
+            throw new RuntimeException("Between 1 and " + MAX_BATCH_STEPS + " steps must be provided!");
+        }
+        if (!userGoalRepository.existsByUserAndGoal_IdAndHierarchy(user, mainGoalId, 1)) {
+            throw new RuntimeException("Goal not assigned to user or it's not a main Goal!");
+        }
+
+        List<Goal> stepGoals = new ArrayList<>(steps.size());
+        for (NewGoalStepDTO step : steps) {
+            if (step.getDescription() == null || step.getStartDate() == null || step.getDueDate() == null) {
+                throw new RuntimeException("Each step needs a description, a start date and a due date!");
+            }
+            stepGoals.add(new Goal(step.getDescription(), step.getPriority(), step.getStartDate(), step.getDueDate(), step.getStepOrder()));
+        }
+
+        goalRepository.batchInsertGoals(user.getId(), stepGoals, Collections.nCopies(stepGoals.size(), mainGoalId));
+        goalRepository.adjustStepCounts(mainGoalId, stepGoals.size(), 0);
+        stepGoals.forEach(stepGoal -> goalAccessService.invalidate(user.getId(), stepGoal.getId()));
+        return stepGoals;
+    }
+
  // Modify a goal's completion status (done/not done)
+    @Transactional
     public void updateGoalStatus(Long goalId, boolean isDone) {
         User user = userService.getAuthenticatedUser();
-        Goal goalToUpdated = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found!"));
-    	UserGoal userGoal = userGoalRepository.findByUserAndGoal(user, goalToUpdated)
-            .orElseThrow(() -> new RuntimeException("Goal not assigned to user!"));
-
+        UserGoal userGoal = findOwnedUserGoal(user, goalId);
+        Goal goalToUpdated = userGoal.getGoal();
 
-        goalToUpdated.setDone(isDone);
+        GoalStatsService.GoalFacts before = setDone(goalToUpdated, isDone, GoalStatsService.GoalFacts.of(goalToUpdated));
         goalRepository.save(goalToUpdated);
+        recordChange(user, userGoal, goalToUpdated, before);
+        goalEvents.goalChanged(GoalEventDTO.Type.GOAL_UPDATED, user.getId(), goalId, null);
     }
 
+    // The flag is flipped with a conditional UPDATE instead of trusting the loaded entity: two concurrent requests
+    // may both have read the old status, but only one flips it, so counters and stats move once.
+    // Returns before with the status the database actually had.
+    private GoalStatsService.GoalFacts setDone(Goal goal, boolean isDone, GoalStatsService.GoalFacts before) {
+        boolean flipped = goalRepository.updateDoneIfChanged(goal.getId(), isDone) == 1;
+        goal.setDone(isDone);
+        return before.withDone(flipped ? !isDone : isDone);
+    }
+
+    // Propagates a goal change to the main goal's step counters (steps) or to the user's stats (main goals)
+    private void recordChange(User user, UserGoal userGoal, Goal goal, GoalStatsService.GoalFacts before) {
+        if (userGoal.getHierarchy() == 1) {
+            goalStatsService.goalChanged(user.getId(), before, goal);
+        } else {
+            rollUpStepStatus(userGoal, goal.getId(), before.done(), goal.isDone());
+        }
+    }
+
+    // Keeps the main goal's step counters in line when one of its steps is checked or unchecked
+    private void rollUpStepStatus(UserGoal userGoal, Long stepGoalId, boolean wasDone, boolean isDone) {
+        if (userGoal.getHierarchy() != 2 || wasDone == isDone) {
+            return;
+        }
+        goalStepRepository.findMainGoalIdByStepGoalId(stepGoalId)
+                .ifPresent(mainGoalId -> goalRepository.adjustStepCounts(mainGoalId, 0, isDone ? 1 : -1));
+    }
+
+    @Transactional
     public void updateGoal(Long goalId, UpdateGoalDTO updateData) {
         User user = userService.getAuthenticatedUser();
-        Goal goal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found!"));
 
         // Ensure the user owns the goal
-        UserGoal userGoal = userGoalRepository.findByUserAndGoal(user, goal)
-                .orElseThrow(() -> new RuntimeException("Goal not assigned to user!"));
+        UserGoal userGoal = findOwnedUserGoal(user, goalId);
+        Goal goal = userGoal.getGoal();
+        // Taken before any setter runs, so the stats see the old priority, due date and status
+        GoalStatsService.GoalFacts before = GoalStatsService.GoalFacts.of(goal);
 
         // Update fields if provided
         if (updateData.getDescription() != null) {
@@ -98,7 +197,8 @@ public class GoalService {
         if (updateData.getPriority() != null) {
             goal.setPriority(updateData.getPriority());
         }
-        if (updateData.getProgress() != null) {
+        // Main goals with steps derive their progress from the step counters
+        if (updateData.getProgress() != null && goal.getStepCount() == 0) {
             goal.setProgress(updateData.getProgress());
         }
         if (updateData.getStartDate() != null) {
@@ -109,120 +209,296 @@ public class GoalService {
         }
 
         if (updateData.getIsDone() != null) {
-            goal.setDone(updateData.getIsDone());
+            before = setDone(goal, updateData.getIsDone(), before);
         }
         
         if (updateData.getGoalOrder() != null) {
             goal.setGoalOrder(updateData.getGoalOrder());
         }        
         goalRepository.save(goal);
+        recordChange(user, userGoal, goal, before);
+        goalEvents.goalChanged(GoalEventDTO.Type.GOAL_UPDATED, user.getId(), goalId, null);
 
     }
 
+    // Reorders main goals (parentGoalId == null) or the steps of one main goal, in one batched UPDATE
+    @Transactional
+    public List<GoalOrderKey> reorderGoals(ReorderGoalsDTO request) {
+        User user = userService.getAuthenticatedUser();
+        Long parentGoalId = request.getParentGoalId();
+        if (parentGoalId != null && !userGoalRepository.existsByUserAndGoal_IdAndHierarchy(user, parentGoalId, 1)) {
+            throw new RuntimeException("Goal not assigned to user or it's not a main Goal!");
+        }
+
+        Map<Long, Integer> changes;
+        if (request.getOrderedIds() != null) {
+            changes = reorderAll(user, parentGoalId, request.getOrderedIds());
+        } else if (request.getGoalId() != null) {
+            changes = moveOne(user, parentGoalId, request.getGoalId(), request.getPreviousId(), request.getNextId());
+        } else {
+            throw new RuntimeException("Either orderedIds or goalId must be provided!");
+        }
+
+        goalRepository.updateGoalOrders(changes);
+        return changes.entrySet().stream()
+                .map(entry -> new GoalOrderKey(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, Integer> reorderAll(User user, Long parentGoalId, List<Long> orderedIds) {
+        List<GoalOrderKey> scope = findOrderScope(user, parentGoalId);
+        boolean sameGoals = orderedIds.size() == scope.size()
+                && new HashSet<>(orderedIds).equals(scope.stream().map(GoalOrderKey::getGoalId).collect(Collectors.toSet()));
+        if (!sameGoals) {
+            throw new RuntimeException("orderedIds must list every goal being reordered exactly once!");
+        }
+        return GoalOrdering.respace(scope, orderedIds);
+    }
+
+    private Map<Long, Integer> moveOne(User user, Long parentGoalId, Long goalId, Long previousId, Long nextId) {
+        if (previousId == null && nextId == null) {
+            throw new RuntimeException("previousId or nextId must be provided!");
+        }
+        if (goalId.equals(previousId) || goalId.equals(nextId)) {
+            throw new RuntimeException("A goal cannot be moved next to itself!");
+        }
+
+        List<Long> ids = new ArrayList<>(List.of(goalId));
+        if (previousId != null) ids.add(previousId);
+        if (nextId != null) ids.add(nextId);
+        Map<Long, Integer> keys = findOrderKeys(user, parentGoalId, ids).stream()
+                .collect(Collectors.toMap(GoalOrderKey::getGoalId, GoalOrderKey::getOrder));
+        if (!keys.keySet().containsAll(ids)) {
+            throw new RuntimeException("Goal not found among the goals being reordered!");
+        }
+
+        OptionalInt key = GoalOrdering.between(keys.get(previousId), keys.get(nextId));
+        if (key.isPresent()) {
+            Map<Long, Integer> changes = new LinkedHashMap<>();
+            changes.put(goalId, key.getAsInt());
+            return changes;
+        }
+
+        // Neighbours are adjacent: re-space the whole scope with the goal at its new position
+        List<GoalOrderKey> scope = findOrderScope(user, parentGoalId);
+        List<Long> orderedIds = scope.stream()
+                .map(GoalOrderKey::getGoalId)
+                .filter(id -> !id.equals(goalId))
+                .collect(Collectors.toCollection(ArrayList::new));
+        int position = previousId != null ? orderedIds.indexOf(previousId) + 1 : orderedIds.indexOf(nextId);
+        orderedIds.add(position, goalId);
+        return GoalOrdering.respace(scope, orderedIds);
+    }
+
+    private List<GoalOrderKey> findOrderKeys(User user, Long parentGoalId, List<Long> goalIds) {
+        return parentGoalId == null
+                ? userGoalRepository.findMainGoalOrderKeys(user, goalIds)
+                : goalStepRepository.findStepOrderKeys(parentGoalId, goalIds);
+    }
+
+    private List<GoalOrderKey> findOrderScope(User user, Long parentGoalId) {
+        return parentGoalId == null
+                ? userGoalRepository.findAllMainGoalOrderKeys(user)
+                : goalStepRepository.findAllStepOrderKeys(parentGoalId);
+    }
+
+    public GoalStatsDTO getGoalStats() {
+        User user = userService.getAuthenticatedUser();
+        return goalStatsService.getStats(user.getId());
+    }
+
     public GoalDTO getMyGoal(Long goalId) {
         User user = userService.getAuthenticatedUser();
-        Goal goal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found!"));
 
         // Ensure the user owns the goal
-        UserGoal userGoal = userGoalRepository.findByUserAndGoal(user, goal)
-                .orElseThrow(() -> new RuntimeException("Goal not assigned to user!"));
-        
-        return new GoalDTO(goal, userGoal);
-        
+        UserGoal userGoal = findOwnedUserGoal(user, goalId);
+        return new GoalDTO(userGoal.getGoal(), userGoal);
+    }
+
+    private void requireWriteAccess(User user, Long goalId) {
+        if (!goalAccessService.accessOf(user.getId(), goalId).canWrite()) {
+            throw new RuntimeException(goalRepository.existsById(goalId) ? "Goal not assigned to user!" : "Goal not found!");
+        }
+    }
+
+    // The user's UserGoal for a goal with the goal fetched in the same query
+    private UserGoal findOwnedUserGoal(User user, Long goalId) {
+        return userGoalRepository.findWithGoalByUserAndGoalId(user, goalId)
+                .orElseThrow(() -> goalRepository.existsById(goalId)
+                        ? new RuntimeException("Goal not assigned to user!")
+                        : new RuntimeException("Goal not found!"));
     }
     
     public List<GoalDTO> getUserGoals(boolean filterUnfinished) {
+        return getUserGoals(filterUnfinished, null, null).getItems();
+    }
+
+    // Filtering and (goalOrder, id) ordering happen in SQL; limit == null returns every remaining goal
+    public CursorPage<GoalDTO> getUserGoals(boolean filterUnfinished, Integer limit, String cursor) {
         User user = userService.getAuthenticatedUser();
-        List<UserGoal> userGoals = userGoalRepository.findByUserAndHierarchy(user, 1);
 
-        // Filter if needed, and then sort by goalOrder (ascending)
-        return userGoals.stream()
-                .map(userGoal -> new GoalDTO(userGoal.getGoal(), userGoal))  // Create DTO with goal and userGoal
-                .filter(goalDTO -> !filterUnfinished || !goalDTO.isDone()) // If filterUnfinished is true, only include unfinished goals
-                .sorted(Comparator.comparingInt(GoalDTO::getOrder)) // Sort by goal order (ascending)
+        int afterOrder = Integer.MIN_VALUE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            long[] keys = PageCursor.decode(cursor, 2);
+            if (keys[0] < Integer.MIN_VALUE || keys[0] > Integer.MAX_VALUE) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            afterOrder = (int) keys[0];
+            afterId = keys[1];
+        }
+
+        Pageable pageable = PageLimit.withLookahead(limit);
+        List<UserGoal> userGoals = filterUnfinished
+                ? userGoalRepository.findUnfinishedMainGoalsAfter(user, afterOrder, afterId, pageable)
+                : userGoalRepository.findMainGoalsAfter(user, afterOrder, afterId, pageable);
+
+        String nextCursor = null;
+        if (limit != null && userGoals.size() > limit) {
+            userGoals = userGoals.subList(0, limit);
+            Goal last = userGoals.get(limit - 1).getGoal();
+            nextCursor = PageCursor.encode(last.getGoalOrder(), last.getId());
+        }
+
+        List<GoalDTO> goals = userGoals.stream()
+                .map(userGoal -> new GoalDTO(userGoal.getGoal(), userGoal))
                 .collect(Collectors.toList());
+        fillUnreadComments(user, goals);
+        return new CursorPage<>(goals, nextCursor);
+    }
+
+    // Unread counters are stored per (user, goal); one lookup for the page, only rows with unread comments come back
+    private void fillUnreadComments(User user, List<GoalDTO> goals) {
+        if (goals.isEmpty()) {
+            return;
+        }
+        Map<Long, GoalDTO> byId = goals.stream().collect(Collectors.toMap(GoalDTO::getId, goal -> goal));
+        commentReadStateRepository.findUnread(user.getId(), byId.keySet())
+                .forEach(state -> byId.get(state.getGoalId()).setUnreadComments(state.getUnreadCount()));
+    }
+
+    // Changes whenever a main goal is added, removed or updated, or an unread counter moves; the page parameters are part of the tag
+    public String getUserGoalsETag(boolean filterUnfinished, Integer limit, String cursor) {
+        User user = userService.getAuthenticatedUser();
+        ContentVersion reads = commentReadStateRepository.findVersion(user.getId());
+        return ETags.of("goals", userGoalRepository.findMainGoalsVersion(user), user.getId(), filterUnfinished, limit, cursor,
+                reads.getCount(), reads.getMaxRowVersion());
+    }
+
+    public String getGoalStepsETag(Long goalId) {
+        User user = userService.getAuthenticatedUser();
+        requireWriteAccess(user, goalId);
+        return ETags.of("steps", goalStepRepository.findStepsVersion(goalId), goalId);
     }
 
     public List<GoalStepDTO> getGoalSteps(Long goalId) {
         User user = userService.getAuthenticatedUser();
 
         // Ensure the main goal belongs to the user
-        Goal mainGoal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found!"));
-
-        userGoalRepository.findByUserAndGoal(user, mainGoal)
-                .orElseThrow(() -> new RuntimeException("Goal not assigned to user!"));
+        requireWriteAccess(user, goalId);
 
         // Retrieve steps (sub-goals) of the main goal and map to DTO, ordered by goalOrder
-        return goalStepRepository.findByMainGoalOrderByStepGoalGoalOrderAsc(mainGoal)  // Corrected method call
+        return goalStepRepository.findWithStepGoalByMainGoalIdIn(List.of(goalId))
                 .stream()
                 .map(GoalStepDTO::new) // Convert GoalStep to GoalStepDTO
                 .collect(Collectors.toList());
     }
 
+    // All main goals with their ordered steps, in two queries regardless of the number of goals
+    public List<GoalTreeDTO> getGoalTree() {
+        User user = userService.getAuthenticatedUser();
+        List<UserGoal> mainGoals = userGoalRepository.findWithGoalByUserAndHierarchy(user, 1);
+        if (mainGoals.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> mainGoalIds = mainGoals.stream()
+                .map(userGoal -> userGoal.getGoal().getId())
+                .collect(Collectors.toList());
+
+        Map<Long, List<GoalStepDTO>> stepsByMainGoal = goalStepRepository.findWithStepGoalByMainGoalIdIn(mainGoalIds)
+                .stream()
+                .collect(Collectors.groupingBy(step -> step.getMainGoal().getId(),
+                        Collectors.mapping(GoalStepDTO::new, Collectors.toList())));
+
+        return mainGoals.stream()
+                .map(userGoal -> new GoalTreeDTO(
+                        new GoalDTO(userGoal.getGoal(), userGoal),
+                        stepsByMainGoal.getOrDefault(userGoal.getGoal().getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
 
 
 
     
+    @Transactional
     public void deleteGoal(Long goalId) {
         User user = userService.getAuthenticatedUser();
-        Goal mainGoal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found!"));
 
         // Ensure the user owns the goal
-        userGoalRepository.findByUserAndGoalAndHierarchy(user, mainGoal, 1)
-                .orElseThrow(() -> new RuntimeException("Goal not assigned to user or it's not a main Goal!"));
+        if (!userGoalRepository.existsByUserAndGoal_IdAndHierarchy(user, goalId, 1)) {
+            if (!goalRepository.existsById(goalId)) {
+                throw new RuntimeException("Goal not found!");
+            }
+            throw new RuntimeException("Goal not assigned to user or it's not a main Goal!");
+        }
 
-        // Retrieve all step goals linked to this main goal
-        List<GoalStep> goalSteps = goalStepRepository.findByMainGoal(mainGoal);
+        deleteGoalTrees(user, List.of(goalId));
+    }
 
-        // Extract step goals and delete them first
-        List<Goal> stepGoals = goalSteps.stream()
-                .map(GoalStep::getStepGoal)
-                .collect(Collectors.toList());
-        
-        // Delete step goals from the userGoal table first
-        List<UserGoal> stepUserGoals = userGoalRepository.findByGoalIn(stepGoals);
-        userGoalRepository.deleteAll(stepUserGoals);
-        
-        goalStepRepository.deleteAll(goalSteps); // Delete step relationships
-        goalRepository.deleteAll(stepGoals); // Delete step goals
+    // Deletes several main goals with their steps; all of them must belong to the user
+    @Transactional
+    public void deleteGoals(List<Long> goalIds) {
+        User user = userService.getAuthenticatedUser();
+        if (goalIds == null || goalIds.isEmpty() || goalIds.size() > PageLimit.MAX_PAGE_SIZE) {
+            throw new RuntimeException("Between 1 and " + PageLimit.MAX_PAGE_SIZE + " goal ids must be provided!");
+        }
 
-        // Finally, delete the main goal
-        userGoalRepository.deleteAll(userGoalRepository.findByUserAndGoal(user, mainGoal).stream().toList());
-        goalRepository.delete(mainGoal);
+        List<Long> distinctIds = goalIds.stream().distinct().collect(Collectors.toList());
+        List<Long> ownedIds = userGoalRepository.findOwnedMainGoalIds(user, distinctIds);
+        if (ownedIds.size() != distinctIds.size()) {
+            throw new RuntimeException("Some goals are not assigned to user or are not main Goals!");
+        }
+
+        deleteGoalTrees(user, ownedIds);
     }
 
+    // Fixed number of set-based statements however many steps, shares or comments the goals have
+    private void deleteGoalTrees(User user, List<Long> mainGoalIds) {
+        List<Goal> mainGoals = goalRepository.findAllById(mainGoalIds);
+        List<Long> goalIds = new ArrayList<>(mainGoalIds);
+        goalIds.addAll(goalStepRepository.findStepGoalIdsByMainGoalIds(mainGoalIds));
+
+        goalCommentRepository.bulkDeleteByGoalIds(goalIds);
+        commentReadStateRepository.bulkDeleteByGoalIds(goalIds);
+        sharingRepository.bulkDeleteByGoalIds(mainGoalIds);
+        userGoalRepository.bulkDeleteByGoalIds(goalIds);
+        goalStepRepository.bulkDeleteByGoalIds(goalIds);
+        goalRepository.deleteAllByIdInBatch(goalIds);
+
+        goalStatsService.goalsRemoved(user.getId(), mainGoals);
+        goalAccessService.invalidateGoals(goalIds);
+    }
 
+    @Transactional
     public void deleteStepGoal(Long stepGoalId) {
         User user = userService.getAuthenticatedUser();
-        
-        // Find the step goal
-        Goal stepGoal = goalRepository.findById(stepGoalId)
-                .orElseThrow(() -> new RuntimeException("Step Goal not found!"));
-
-        // Ensure the user owns the goal
-        userGoalRepository.findByUserAndGoalAndHierarchy(user, stepGoal, 2)
-                .orElseThrow(() -> new RuntimeException("Goal not assigned to user or it's not a main Goal!"));
 
-        // Find the GoalStep relation to get the main goal
-        GoalStep goalStep = goalStepRepository.findByStepGoal(stepGoal)
-                .orElseThrow(() -> new RuntimeException("Step Goal is not linked to a main goal!"));
-
-        Goal mainGoal = goalStep.getMainGoal();
-
-        // ✅ Ensure the user owns the **main goal** (not the step goal)
-        userGoalRepository.findByUserAndGoalAndHierarchy(user, mainGoal, 1)
+        // The step must be linked to a main goal the user owns
+        Long mainGoalId = goalStepRepository.findOwnedMainGoalIdOfStep(user, stepGoalId)
                 .orElseThrow(() -> new RuntimeException("You do not own the main goal, cannot delete step!"));
+        boolean wasDone = goalRepository.findDoneById(stepGoalId).orElse(false);
 
-        userGoalRepository.findByUserAndGoal(user, stepGoal).ifPresent(userGoalRepository::delete);
-
-        // ✅ Remove from goal_step table
-        goalStepRepository.delete(goalStep);
+        List<Long> stepGoalIds = List.of(stepGoalId);
+        goalCommentRepository.bulkDeleteByGoalIds(stepGoalIds);
+        commentReadStateRepository.bulkDeleteByGoalIds(stepGoalIds);
+        userGoalRepository.bulkDeleteByGoalIds(stepGoalIds);
+        goalStepRepository.bulkDeleteByGoalIds(stepGoalIds);
+        goalRepository.deleteAllByIdInBatch(stepGoalIds);
 
-        // ✅ Delete the step goal itself
-        goalRepository.delete(stepGoal);
+        goalRepository.adjustStepCounts(mainGoalId, -1, wasDone ? -1 : 0);
+        goalAccessService.invalidateGoals(stepGoalIds);
     }
     
 }
@@ -0,0 +1,138 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.GoalStatsDTO;
+import com.focustrack.backend.model.Goal;
+import com.focustrack.backend.model.UserGoalStats;
+import com.focustrack.backend.repository.UserGoalStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-user goal statistics (user_goal_stats and user_goal_due_counts) current with
+ * relative updates, so GET /goals/stats never scans the user's goals.
+ * Only main goals are counted. Callers report changes after writing them, within the same transaction.
+ */
+@Service
+public class GoalStatsService {
+
+    private final UserGoalStatsRepository statsRepository;
+
+    @Autowired
+    public GoalStatsService(UserGoalStatsRepository statsRepository) {
+        this.statsRepository = statsRepository;
+    }
+
+    // Priority, due date and status of a goal before it is modified
+    public record GoalFacts(int priority, LocalDate dueDate, boolean done) {
+        public static GoalFacts of(Goal goal) {
+            return new GoalFacts(goal.getPriority(), goal.getDueDate(), goal.isDone());
+        }
+
+        public GoalFacts withDone(boolean done) {
+            return new GoalFacts(priority, dueDate, done);
+        }
+    }
+
+    public void goalsAdded(Long userId, Collection<Goal> goals) {
+        Delta delta = new Delta();
+        goals.forEach(goal -> delta.add(GoalFacts.of(goal), 1));
+        apply(userId, delta);
+    }
+
+    public void goalsRemoved(Long userId, Collection<Goal> goals) {
+        Delta delta = new Delta();
+        goals.forEach(goal -> delta.add(GoalFacts.of(goal), -1));
+        apply(userId, delta);
+    }
+
+    public void goalChanged(Long userId, GoalFacts before, Goal after) {
+        GoalFacts now = GoalFacts.of(after);
+        if (now.equals(before)) {
+            return;
+        }
+        Delta delta = new Delta();
+        delta.add(before, -1);
+        delta.add(now, 1);
+        apply(userId, delta);
+    }
+
+    @Transactional
+    public GoalStatsDTO getStats(Long userId) {
+        UserGoalStats stats = statsRepository.findById(userId).orElseGet(() -> {
+            rebuild(userId);
+            return statsRepository.findById(userId).orElseThrow();
+        });
+
+        LocalDate today = LocalDate.now();
+        Object[] window = statsRepository.sumOpenGoalsByDueWindow(userId, today, today.plusDays(6)).get(0);
+        return new GoalStatsDTO(
+                stats.getTotalGoals(),
+                stats.getDoneGoals(),
+                stats.getTotalGoals() - stats.getDoneGoals(),
+                stats.getLowPriorityGoals(),
+                stats.getMediumPriorityGoals(),
+                stats.getHighPriorityGoals(),
+                ((Number) window[0]).longValue(),
+                ((Number) window[1]).longValue());
+    }
+
+    @Transactional
+    public void rebuild(Long userId) {
+        statsRepository.rebuildSummary(userId);
+        statsRepository.deleteDueCounts(userId);
+        statsRepository.rebuildDueCounts(userId);
+    }
+
+    private void apply(Long userId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        int updated = statsRepository.applyDelta(userId, delta.total, delta.done, delta.low, delta.medium, delta.high);
+        if (updated == 0) {
+            // First change for this user: the rebuild already reflects it
+            rebuild(userId);
+            return;
+        }
+        delta.openByDueDate.forEach((dueDate, count) -> {
+            if (count != 0) {
+                statsRepository.applyDueDelta(userId, dueDate, count);
+            }
+        });
+    }
+
+    private static final class Delta {
+        private int total;
+        private int done;
+        private int low;
+        private int medium;
+        private int high;
+        private final Map<LocalDate, Integer> openByDueDate = new TreeMap<>();
+
+        void add(GoalFacts facts, int sign) {
+            total += sign;
+            if (facts.done()) {
+                done += sign;
+            } else {
+                openByDueDate.merge(facts.dueDate(), sign, Integer::sum);
+            }
+            if (facts.priority() <= 3) {
+                low += sign;
+            } else if (facts.priority() <= 7) {
+                medium += sign;
+            } else {
+                high += sign;
+            }
+        }
+
+        boolean isEmpty() {
+            return total == 0 && done == 0 && low == 0 && medium == 0 && high == 0
+                    && openByDueDate.values().stream().allMatch(count -> count == 0);
+        }
+    }
+}
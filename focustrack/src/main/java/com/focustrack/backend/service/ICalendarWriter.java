@@ -0,0 +1,83 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.CalendarEntryDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an RFC 5545 calendar one VEVENT at a time: all-day events from start date to due date,
+ * CRLF line endings, text escaped and long lines folded at 75 octets.
+ */
+class ICalendarWriter {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+    private final String stamp;
+
+    ICalendarWriter(Writer out, Instant now) {
+        this.out = out;
+        this.stamp = STAMP.format(now);
+    }
+
+    void begin(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//FocusTrack//Goals//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    void event(CalendarEntryDTO entry) throws IOException {
+        LocalDate due = entry.getDueDate();
+        LocalDate start = entry.getStartDate() == null || entry.getStartDate().isAfter(due) ? due : entry.getStartDate();
+        line("BEGIN:VEVENT");
+        line("UID:goal-" + entry.getGoalId() + "@focustrack");
+        line("DTSTAMP:" + stamp);
+        line("DTSTART;VALUE=DATE:" + DATE.format(start));
+        line("DTEND;VALUE=DATE:" + DATE.format(due.plusDays(1))); // DTEND is exclusive
+        line("SUMMARY:" + escape((entry.isDone() ? "[done] " : "") + entry.getDescription()));
+        line("CATEGORIES:" + (entry.getHierarchy() == 1 ? "Goal" : "Step"));
+        line("END:VEVENT");
+    }
+
+    void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void line(String content) throws IOException {
+        // Fold before 75 octets without splitting a UTF-8 sequence; continuation lines start with a space
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > 75) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+}
@@ -0,0 +1,331 @@
+package com.focustrack.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focustrack.backend.dto.ImportGoalDTO;
+import com.focustrack.backend.dto.ImportResultDTO;
+import com.focustrack.backend.model.Goal;
+import com.focustrack.backend.model.User;
+import com.focustrack.backend.repository.GoalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports main goals with their steps from NDJSON (one goal per line, steps nested) or CSV
+ * (a type column of "goal" or "step"; steps belong to the goal row above them).
+ * Input is parsed line by line and written in batches of JDBC inserts, one transaction per batch,
+ * so neither memory nor transaction length grows with the file. Bad lines are reported and skipped.
+ */
+@Service
+public class ImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+    // Same bound as a batch of steps added through the API; keeps one goal from outgrowing a batch
+    public static final int MAX_STEPS_PER_GOAL = GoalService.MAX_BATCH_STEPS;
+
+    static final List<String> CSV_COLUMNS = List.of("type", "description", "priority", "startDate", "dueDate", "order", "done");
+
+    private final GoalRepository goalRepository;
+    private final UserService userService;
+    private final GoalStatsService goalStatsService;
+    private final GoalAccessService goalAccessService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public ImportService(GoalRepository goalRepository, UserService userService, GoalStatsService goalStatsService,
+                         GoalAccessService goalAccessService, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${focustrack.import.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("focustrack.import.batch-size must be positive");
+        }
+        this.goalRepository = goalRepository;
+        this.userService = userService;
+        this.goalStatsService = goalStatsService;
+        this.goalAccessService = goalAccessService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ImportResultDTO importNdjson(InputStream input) {
+        Import run = new Import(userService.getAuthenticatedUser());
+        forEachLine(input, (lineNumber, line) -> {
+            try {
+                ImportGoalDTO dto = objectMapper.readValue(line, ImportGoalDTO.class);
+                List<Goal> steps = new ArrayList<>();
+                if (dto.getSteps() != null) {
+                    if (dto.getSteps().size() > MAX_STEPS_PER_GOAL) {
+                        throw new RuntimeException("A goal can have at most " + MAX_STEPS_PER_GOAL + " steps");
+                    }
+                    for (ImportGoalDTO step : dto.getSteps()) {
+                        if (step.getSteps() != null && !step.getSteps().isEmpty()) {
+                            throw new RuntimeException("Steps cannot have steps of their own");
+                        }
+                        steps.add(toGoal(step));
+                    }
+                }
+                run.add(new PendingGoal(List.of(lineNumber), toGoal(dto), steps));
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (RuntimeException e) {
+                run.fail(lineNumber, e.getMessage());
+            }
+        });
+        return run.finish();
+    }
+
+    public ImportResultDTO importCsv(InputStream input) {
+        Import run = new Import(userService.getAuthenticatedUser());
+        Map<String, Integer> columns = new HashMap<>();
+        PendingGoal[] current = new PendingGoal[1]; // goal row the following step rows attach to
+        boolean[] currentValid = new boolean[1];
+        forEachLine(input, (lineNumber, line) -> {
+            try {
+                List<String> fields = splitCsvLine(line);
+                if (columns.isEmpty()) {
+                    for (int i = 0; i < fields.size(); i++) {
+                        columns.put(fields.get(i).trim(), i);
+                    }
+                    if (!columns.keySet().containsAll(CSV_COLUMNS.subList(0, 5))) {
+                        throw new IllegalStateException("CSV header must contain the columns " + CSV_COLUMNS.subList(0, 5));
+                    }
+                    return;
+                }
+                String type = field(fields, columns, "type").toLowerCase(Locale.ROOT);
+                if (type.equals("goal")) {
+                    if (current[0] != null) {
+                        run.add(current[0]);
+                    }
+                    // Cleared first so that the steps under an invalid goal row are rejected too
+                    current[0] = null;
+                    currentValid[0] = false;
+                    current[0] = new PendingGoal(new ArrayList<>(List.of(lineNumber)), toGoal(fields, columns), new ArrayList<>());
+                    currentValid[0] = true;
+                } else if (type.equals("step")) {
+                    if (!currentValid[0]) {
+                        throw new RuntimeException("Step row without a valid goal row above it");
+                    }
+                    if (current[0].steps().size() >= MAX_STEPS_PER_GOAL) {
+                        throw new RuntimeException("A goal can have at most " + MAX_STEPS_PER_GOAL + " steps");
+                    }
+                    current[0].steps().add(toGoal(fields, columns));
+                    current[0].lines().add(lineNumber);
+                } else {
+                    throw new RuntimeException("type must be goal or step");
+                }
+            } catch (IllegalStateException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                run.fail(lineNumber, e.getMessage());
+            }
+        });
+        if (current[0] != null) {
+            run.add(current[0]);
+        }
+        return run.finish();
+    }
+
+    // State of one import: the batch being filled and the running totals
+    private final class Import {
+        private final User user;
+        private final List<PendingGoal> batch = new ArrayList<>();
+        private int batchRows;
+        private int importedGoals;
+        private int importedSteps;
+        private int failedLines;
+        private final List<ImportResultDTO.LineError> errors = new ArrayList<>();
+
+        Import(User user) {
+            this.user = user;
+        }
+
+        void add(PendingGoal goal) {
+            batch.add(goal);
+            batchRows += 1 + goal.steps().size();
+            if (batchRows >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(int line, String message) {
+            failedLines++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResultDTO.LineError(line, message));
+            }
+        }
+
+        ImportResultDTO finish() {
+            flush();
+            return new ImportResultDTO(importedGoals, importedSteps, failedLines, errors);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                List<Long> goalIds = transactionTemplate.execute(status -> insertBatch(user.getId(), batch));
+                goalAccessService.invalidateGoals(goalIds);
+                for (PendingGoal goal : batch) {
+                    importedGoals++;
+                    importedSteps += goal.steps().size();
+                }
+            } catch (RuntimeException e) {
+                // The whole batch was rolled back; report its lines and carry on with the rest of the file
+                for (PendingGoal goal : batch) {
+                    goal.lines().forEach(line -> fail(line, "Batch could not be saved: " + e.getMessage()));
+                }
+            }
+            batch.clear();
+            batchRows = 0;
+        }
+    }
+
+    // Main goals first so the steps can reference their ids; counters and stats are written in the same transaction
+    private List<Long> insertBatch(Long userId, List<PendingGoal> batch) {
+        List<Goal> mainGoals = new ArrayList<>(batch.size());
+        List<Goal> steps = new ArrayList<>();
+        for (PendingGoal pending : batch) {
+            Goal mainGoal = pending.goal();
+            if (!pending.steps().isEmpty()) {
+                int done = (int) pending.steps().stream().filter(Goal::isDone).count();
+                mainGoal.setStepCount(pending.steps().size());
+                mainGoal.setDoneStepCount(done);
+                mainGoal.setProgress(done * 100 / pending.steps().size());
+            }
+            mainGoals.add(mainGoal);
+        }
+        goalRepository.batchInsertGoals(userId, mainGoals, Collections.nCopies(mainGoals.size(), null));
+
+        List<Long> mainGoalIds = new ArrayList<>();
+        for (PendingGoal pending : batch) {
+            steps.addAll(pending.steps());
+            pending.steps().forEach(step -> mainGoalIds.add(pending.goal().getId()));
+        }
+        goalRepository.batchInsertGoals(userId, steps, mainGoalIds);
+        goalStatsService.goalsAdded(userId, mainGoals);
+
+        List<Long> goalIds = new ArrayList<>(mainGoals.size() + steps.size());
+        mainGoals.forEach(goal -> goalIds.add(goal.getId()));
+        steps.forEach(goal -> goalIds.add(goal.getId()));
+        return goalIds;
+    }
+
+    private record PendingGoal(List<Integer> lines, Goal goal, List<Goal> steps) {
+    }
+
+    private static Goal toGoal(ImportGoalDTO dto) {
+        Goal goal = newGoal(dto.getDescription(), dto.getPriority(), dto.getStartDate(), dto.getDueDate(), dto.getOrder());
+        goal.setDone(dto.isDone());
+        return goal;
+    }
+
+    private static Goal toGoal(List<String> fields, Map<String, Integer> columns) {
+        try {
+            String order = field(fields, columns, "order");
+            Goal goal = newGoal(field(fields, columns, "description"),
+                    Integer.parseInt(field(fields, columns, "priority")),
+                    LocalDate.parse(field(fields, columns, "startDate")),
+                    LocalDate.parse(field(fields, columns, "dueDate")),
+                    order.isEmpty() ? 0 : Integer.parseInt(order));
+            goal.setDone(Boolean.parseBoolean(field(fields, columns, "done")));
+            return goal;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("priority and order must be whole numbers");
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Dates must be formatted as yyyy-MM-dd");
+        }
+    }
+
+    private static Goal newGoal(String description, int priority, LocalDate startDate, LocalDate dueDate, int order) {
+        if (description == null || description.isBlank() || description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("description must be between 1 and " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (startDate == null || dueDate == null) {
+            throw new RuntimeException("startDate and dueDate are required");
+        }
+        return new Goal(description, priority, startDate, dueDate, order);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? "" : fields.get(index).trim();
+    }
+
+    // RFC 4180 fields on a single line: commas separate, quotes wrap, "" is a literal quote
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private interface LineHandler {
+        void handle(int lineNumber, String line);
+    }
+
+    // Blank lines are skipped but still counted, so reported line numbers match the file
+    private static void forEachLine(InputStream input, LineHandler handler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (!line.isBlank()) {
+                    handler.handle(lineNumber, line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
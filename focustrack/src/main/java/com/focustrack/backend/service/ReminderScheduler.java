@@ -0,0 +1,90 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.repository.GoalRepository;
+import com.focustrack.backend.repository.ReminderCandidate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Emails opted-in users about open goals and steps due within the horizon.
+ * The scan walks goals by (due_date, id) one keyset page at a time; each page is one short transaction
+ * that queues the emails in the outbox and marks the goals as reminded for their current due date,
+ * so a goal is reminded once per due date and a crash never sends twice. The page's goal rows are locked with
+ * SKIP LOCKED, so instances running the same cron split the work instead of each sending every reminder. Sending is left to
+ * EmailOutboxDispatcher, whose per-poll budget spreads a large burst of reminders over several polls.
+ */
+@Component
+public class ReminderScheduler {
+
+    private final GoalRepository goalRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int batchSize;
+
+    @Autowired
+    public ReminderScheduler(GoalRepository goalRepository, EmailService emailService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${focustrack.reminders.horizon-days:2}") int horizonDays,
+                             @Value("${focustrack.reminders.batch-size:200}") int batchSize) {
+        this.goalRepository = goalRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${focustrack.reminders.cron:0 0 7 * * *}")
+    public void sendReminders() {
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(horizonDays);
+        LocalDate afterDueDate = today.minusDays(1);
+        long afterId = 0L;
+        while (true) {
+            LocalDate pageAfterDueDate = afterDueDate;
+            long pageAfterId = afterId;
+            List<ReminderCandidate> page = transactionTemplate.execute(status ->
+                    remindPage(today, horizon, pageAfterDueDate, pageAfterId));
+            if (page == null || page.size() < batchSize) {
+                return;
+            }
+            ReminderCandidate last = page.get(page.size() - 1);
+            afterDueDate = last.getDueDate();
+            afterId = last.getGoalId();
+        }
+    }
+
+    // One email per user per page, listing that user's goals from the page
+    private List<ReminderCandidate> remindPage(LocalDate today, LocalDate horizon, LocalDate afterDueDate, long afterId) {
+        List<ReminderCandidate> page = goalRepository.findReminderCandidates(today, horizon, afterDueDate, afterId, batchSize);
+        if (page.isEmpty()) {
+            return page;
+        }
+
+        Map<String, List<ReminderCandidate>> byEmail = page.stream()
+                .collect(Collectors.groupingBy(ReminderCandidate::getEmail, LinkedHashMap::new, Collectors.toList()));
+        byEmail.forEach((email, goals) -> emailService.enqueue(email, "Goals due soon", body(goals)));
+
+        goalRepository.markReminded(page.stream().map(ReminderCandidate::getGoalId).collect(Collectors.toList()));
+        return page;
+    }
+
+    private static String body(List<ReminderCandidate> goals) {
+        StringBuilder body = new StringBuilder("These goals are due soon:\n\n");
+        for (ReminderCandidate goal : goals) {
+            body.append("- ").append(goal.getDescription()).append(" (due ").append(goal.getDueDate()).append(")\n");
+        }
+        body.append("\nYou can turn these reminders off in your profile settings.");
+        return body.toString();
+    }
+}
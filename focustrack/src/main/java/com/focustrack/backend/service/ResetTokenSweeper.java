@@ -0,0 +1,38 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.repository.PasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Deletes abandoned password-reset tokens, batch-size rows per transaction so locks and WAL stay small
+@Component
+public class ResetTokenSweeper {
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public ResetTokenSweeper(PasswordResetTokenRepository passwordResetTokenRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${focustrack.reset-tokens.sweep.batch-size:1000}") int batchSize) {
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${focustrack.reset-tokens.sweep.interval-ms:600000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> passwordResetTokenRepository.deleteExpired(now, batchSize));
+        } while (deleted != null && deleted == batchSize);
+    }
+}
@@ -0,0 +1,69 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.CursorPage;
+import com.focustrack.backend.dto.PageCursor;
+import com.focustrack.backend.dto.SearchResultDTO;
+import com.focustrack.backend.model.User;
+import com.focustrack.backend.repository.GoalRepository;
+import com.focustrack.backend.repository.SearchHit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class SearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final GoalRepository goalRepository;
+    private final UserService userService;
+
+    @Autowired
+    public SearchService(GoalRepository goalRepository, UserService userService) {
+        this.goalRepository = goalRepository;
+        this.userService = userService;
+    }
+
+    // Same visibility as the rest of the API: own goals and steps, goals shared with the user (with their steps),
+    // and comments on goals the user may read
+    public CursorPage<SearchResultDTO> search(String q, Integer limit, String cursor) {
+        User user = userService.getAuthenticatedUser();
+        if (q == null || q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new RuntimeException("q must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        // The rank is carried as its float bits: ranks are non-negative, so the bits sort like the floats
+        float afterRank = Float.MAX_VALUE;
+        int afterKind = -1;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            long[] keys = PageCursor.decode(cursor, 3);
+            afterRank = Float.intBitsToFloat((int) keys[0]);
+            afterKind = (int) keys[1];
+            afterId = keys[2];
+        }
+
+        // Fetch one extra row to know whether another page follows
+        List<SearchHit> hits = goalRepository.search(user.getId(), q.trim(), afterRank, afterKind, afterId, pageSize + 1);
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            SearchHit last = hits.get(pageSize - 1);
+            nextCursor = PageCursor.encode(Float.floatToIntBits(last.getRank()), last.getKind(), last.getId());
+        }
+
+        List<SearchResultDTO> results = hits.stream()
+                .map(hit -> new SearchResultDTO(hit.getKind() == 0 ? "goal" : "comment",
+                        hit.getId(), hit.getGoalId(), hit.getBody(), hit.getRank()))
+                .collect(Collectors.toList());
+        return new CursorPage<>(results, nextCursor);
+    }
+}
@@ -3,14 +3,29 @@ package com.focustrack.backend.service;
 import com.focustrack.backend.model.*;
 import com.focustrack.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.focustrack.backend.dto.CommentThreadPage;
+import com.focustrack.backend.dto.ContentVersion;
+import com.focustrack.backend.dto.CursorPage;
 import com.focustrack.backend.dto.GoalDTO;
+import com.focustrack.backend.dto.GoalEventDTO;
+import com.focustrack.backend.dto.PageCursor;
+import com.focustrack.backend.dto.PageLimit;
 import com.focustrack.backend.dto.UserDTO;
 import com.focustrack.backend.dto.GoalCommentDTO;
 import com.focustrack.backend.dto.SharedGoalDTO;
@@ -26,26 +41,26 @@ public class SharingService {
     @Autowired private ContactRepository contactRepository;
     @Autowired private UserGoalRepository userGoalRepository;
     @Autowired private GoalCommentRepository goalCommentRepository;
+    @Autowired private CommentReadStateRepository commentReadStateRepository;
+    @Autowired private GoalAccessService goalAccessService;
+    @Autowired private GoalEvents goalEvents;
 
     public List<SharedGoalDTO> getSharedGoals() {
+        return getSharedGoals(null, null).getItems();
+    }
+
+    // One query per page: goal, owner and the owner's hierarchy come back as SharedGoalDTO rows
+    public CursorPage<SharedGoalDTO> getSharedGoals(Integer limit, String cursor) {
         User user = userService.getAuthenticatedUser();
-        return sharingRepository.findByContact(user)
-                .stream()
-                .map(sharedGoal -> {
-                    // Find the UserGoal for the owner and the shared goal to get hierarchy
-                    UserGoal userGoal = userGoalRepository.findByUserAndGoal(sharedGoal.getOwner(), sharedGoal.getGoal())
-                            .orElseThrow(() -> new RuntimeException("UserGoal not found for owner and goal"));
-
-                    // Pass both Goal and UserGoal to GoalDTO constructor
-                    GoalDTO goalDTO = new GoalDTO(sharedGoal.getGoal(), userGoal);
-
-                    return new SharedGoalDTO(
-                            goalDTO,
-                            sharedGoal.getOwner().getEmail(),
-                            sharedGoal.getOwner().getId()
-                    );
-                })
-                .collect(Collectors.toList());
+        long afterGoalId = decodeCursor(cursor);
+        return toPage(sharingRepository.findSharedWith(user, afterGoalId, PageLimit.withLookahead(limit)), limit);
+    }
+
+    public String getSharedGoalsETag(Integer limit, String cursor) {
+        User user = userService.getAuthenticatedUser();
+        ContentVersion reads = commentReadStateRepository.findVersion(user.getId());
+        return ETags.of("shared-with", sharingRepository.findSharedWithVersion(user), user.getId(), limit, cursor,
+                reads.getCount(), reads.getMaxRowVersion());
     }
 
     public SharedGoalDTO getSharedGoalById(Long goalId) {
@@ -70,24 +85,36 @@ public class SharingService {
 
     
     
+    public String getGoalsSharedByUserETag(Long ownerId, Integer limit, String cursor) {
+        User contact = userService.getAuthenticatedUser();
+        ContentVersion reads = commentReadStateRepository.findVersion(contact.getId());
+        return ETags.of("shared-by", sharingRepository.findSharedByOwnerVersion(ownerId, contact), ownerId, contact.getId(), limit, cursor,
+                reads.getCount(), reads.getMaxRowVersion());
+    }
+
     public List<SharedGoalDTO> getGoalsSharedByUser(Long ownerId) {
+        return getGoalsSharedByUser(ownerId, null, null).getItems();
+    }
+
+    public CursorPage<SharedGoalDTO> getGoalsSharedByUser(Long ownerId, Integer limit, String cursor) {
         User contact = userService.getAuthenticatedUser(); // current user
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(ownerId)) {
+            throw new RuntimeException("User not found");
+        }
+        long afterGoalId = decodeCursor(cursor);
+        return toPage(sharingRepository.findSharedByOwner(ownerId, contact, afterGoalId, PageLimit.withLookahead(limit)), limit);
+    }
 
-        List<SharedGoal> sharedGoals = sharingRepository.findByOwnerAndContact(owner, contact);
+    private static long decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? 0L : PageCursor.decode(cursor, 1)[0];
+    }
 
-        return sharedGoals.stream()
-                .map(sharedGoal -> {
-                    UserGoal userGoal = userGoalRepository.findByUserAndGoal(owner, sharedGoal.getGoal())
-                            .orElseThrow(() -> new RuntimeException("UserGoal not found for owner and goal"));
-                    return new SharedGoalDTO(
-                            new GoalDTO(sharedGoal.getGoal(), userGoal),
-                            sharedGoal.getOwner().getEmail(),
-                            sharedGoal.getOwner().getId()
-                    );
-                })
-                .collect(Collectors.toList());
+    private static CursorPage<SharedGoalDTO> toPage(List<SharedGoalDTO> rows, Integer limit) {
+        if (limit == null || rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<SharedGoalDTO> items = rows.subList(0, limit);
+        return new CursorPage<>(items, PageCursor.encode(items.get(limit - 1).getGoal().getId()));
     }
 
 
@@ -107,28 +134,31 @@ public class SharingService {
                 .collect(Collectors.toList());
     }
     
+    // contactId is kept for compatibility: step hierarchy always comes from the goal owner, who owns the steps
     public List<GoalDTO> getStepsOfSharedGoal(Long goalId , Long contactId) {
+        return getStepsOfSharedGoals(List.of(goalId)).get(goalId);
+    }
+
+    // Steps of several shared goals, ordered by goal order: one access check and one query for the whole request
+    public Map<Long, List<GoalDTO>> getStepsOfSharedGoals(List<Long> goalIds) {
         User user = userService.getAuthenticatedUser();
-        User contactUser = userRepository.findById(contactId)
-        		.orElseThrow(() -> new RuntimeException("contactUser not found"));
-        Goal mainGoal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found"));
+        if (goalIds == null || goalIds.isEmpty() || goalIds.size() > PageLimit.MAX_PAGE_SIZE) {
+            throw new RuntimeException("Between 1 and " + PageLimit.MAX_PAGE_SIZE + " goal ids must be provided!");
+        }
+        List<Long> distinctIds = goalIds.stream().distinct().collect(Collectors.toList());
+        if (sharingRepository.findSharedGoalIds(user, distinctIds).size() != distinctIds.size()) {
+            throw new RuntimeException("You do not have access to this goal");
+        }
 
-        sharingRepository.findByGoalAndContact(mainGoal, user)
-                .orElseThrow(() -> new RuntimeException("You do not have access to this goal"));
-
-        return goalStepRepository.findByMainGoal(mainGoal)
-                .stream()
-                .map(step -> {
-                    Goal stepGoal = step.getStepGoal();
-                    UserGoal userGoal = userGoalRepository.findByUserAndGoal(contactUser, stepGoal)
-                            .orElseThrow(() -> new RuntimeException("UserGoal not found for user and step goal"));
-                    return new GoalDTO(stepGoal, userGoal);
-                })
-                .collect(Collectors.toList());
+        Map<Long, List<GoalDTO>> stepsByGoal = new LinkedHashMap<>();
+        distinctIds.forEach(goalId -> stepsByGoal.put(goalId, new ArrayList<>()));
+        goalStepRepository.findSharedSteps(user, distinctIds)
+                .forEach(row -> stepsByGoal.get(row.getMainGoalId()).add(row.getStep()));
+        return stepsByGoal;
     }
 
 
+    @Transactional
     public void shareGoal(Long goalId, Long contactId) {
         User owner = userService.getAuthenticatedUser();
         Goal goal = goalRepository.findById(goalId)
@@ -158,8 +188,12 @@ public class SharingService {
         sharedGoal.setContact(contact);
 
         sharingRepository.save(sharedGoal);
+        commentReadStateRepository.startReading(contact.getId(), goal.getId());
+        goalAccessService.invalidate(contact.getId(), goal.getId());
+        goalEvents.goalChanged(GoalEventDTO.Type.GOAL_SHARED, owner.getId(), goalId, null);
     }
 
+    @Transactional
     public void unshareGoal(Long goalId, Long contactId) {
         User owner = userService.getAuthenticatedUser();
         Goal goal = goalRepository.findById(goalId)
@@ -171,62 +205,134 @@ public class SharingService {
                 .orElseThrow(() -> new RuntimeException("Goal not shared with this contact"));
 
         sharingRepository.delete(sharedGoal);
+        commentReadStateRepository.deleteByUserIdAndGoalId(contactId, goalId);
+        goalAccessService.invalidate(contactId, goalId);
+        goalEvents.goalChanged(GoalEventDTO.Type.GOAL_UNSHARED, owner.getId(), goalId, null, contactId);
     }
 
+    @Transactional
     public void addComment(Long goalId, String text) {
         User user = userService.getAuthenticatedUser();
-        Goal goal = goalRepository.findById(goalId).orElseThrow(() -> new RuntimeException("Goal not found!"));
-
-        boolean hasAccess = userGoalRepository.findByUserAndGoal(user, goal).isPresent() ||
-                sharingRepository.findByGoalAndContact(goal, user).isPresent();
-
-        if (!hasAccess) throw new RuntimeException("You do not have access to comment on this goal!");
+        requireReadAccess(user, goalId, "You do not have access to comment on this goal!");
 
         GoalComment comment = new GoalComment();
-        comment.setGoal(goal);
+        comment.setGoal(goalRepository.getReferenceById(goalId));
         comment.setAuthor(user);
         comment.setContent(text);
         comment.setCreatedAt(LocalDateTime.now());
 
         goalCommentRepository.save(comment);
+        commentReadStateRepository.commentAdded(goalId, user.getId());
+        goalEvents.goalChanged(GoalEventDTO.Type.COMMENT_ADDED, user.getId(), goalId, comment.getId());
+    }
+
+    public String getCommentsETag(Long goalId, Integer limit, String after, String before, LocalDateTime since) {
+        User user = userService.getAuthenticatedUser();
+        requireReadAccess(user, goalId, "You do not have access to view comments!");
+        return ETags.of("comments", goalCommentRepository.findCommentsVersion(goalId), goalId, limit, after, before, since);
     }
 
     public List<GoalCommentDTO> getComments(Long goalId) {
+        return getComments(goalId, null, null, null, null).getItems();
+    }
+
+    // after/since read forward from a point, before reads backward; with only a limit the newest comments are returned.
+    // Slices are always oldest first, with the authors joined in the same query.
+    public CommentThreadPage getComments(Long goalId, Integer limit, String after, String before, LocalDateTime since) {
         User user = userService.getAuthenticatedUser();
-        Goal goal = goalRepository.findById(goalId).orElseThrow(() -> new RuntimeException("Goal not found!"));
+        requireReadAccess(user, goalId, "You do not have access to view comments!");
+        if ((after != null ? 1 : 0) + (before != null ? 1 : 0) + (since != null ? 1 : 0) > 1) {
+            throw new RuntimeException("Only one of after, before and since can be given");
+        }
+        Pageable pageable = PageLimit.withLookahead(limit);
+
+        if (after != null || since != null) {
+            CommentKey from = after != null ? CommentKey.decode(after) : new CommentKey(since, Long.MAX_VALUE);
+            List<GoalCommentDTO> rows = goalCommentRepository.findAfter(goalId, from.createdAt(), from.id(), pageable);
+            List<GoalCommentDTO> items = trim(rows, limit);
+            CommentKey first = items.isEmpty() ? from : CommentKey.of(items.get(0));
+            return threadPage(items, existsBefore(goalId, first), limit != null && rows.size() > limit, from);
+        }
+        if (before != null) {
+            CommentKey to = CommentKey.decode(before);
+            List<GoalCommentDTO> rows = goalCommentRepository.findBefore(goalId, to.createdAt(), to.id(), pageable);
+            List<GoalCommentDTO> items = new ArrayList<>(trim(rows, limit));
+            Collections.reverse(items);
+            CommentKey last = items.isEmpty() ? to : CommentKey.of(items.get(items.size() - 1));
+            return threadPage(items, limit != null && rows.size() > limit, existsAfter(goalId, last), to);
+        }
+        if (limit == null) {
+            return threadPage(goalCommentRepository.findThread(goalId), false, false, null);
+        }
+        List<GoalCommentDTO> rows = goalCommentRepository.findLatest(goalId, pageable);
+        List<GoalCommentDTO> items = new ArrayList<>(trim(rows, limit));
+        Collections.reverse(items);
+        return threadPage(items, rows.size() > limit, false, null);
+    }
+
+    // Single-row probes on the (goal_id, created_at, id) index
+    private boolean existsBefore(Long goalId, CommentKey key) {
+        return !goalCommentRepository.findBefore(goalId, key.createdAt(), key.id(), PageRequest.of(0, 1)).isEmpty();
+    }
 
-        boolean hasAccess = userGoalRepository.findByUserAndGoal(user, goal).isPresent() ||
-                sharingRepository.findByGoalAndContact(goal, user).isPresent();
+    private boolean existsAfter(Long goalId, CommentKey key) {
+        return !goalCommentRepository.findAfter(goalId, key.createdAt(), key.id(), PageRequest.of(0, 1)).isEmpty();
+    }
 
-        if (!hasAccess) throw new RuntimeException("You do not have access to view comments!");
+    private record CommentKey(LocalDateTime createdAt, long id) {
 
-        return goalCommentRepository.findByGoalOrderByCreatedAtAsc(goal)
-                .stream()
-                .map(comment -> new GoalCommentDTO(
-                		comment.getId(),
-                        comment.getAuthor().getEmail(),
-                        comment.getCreatedAt(),
-                        comment.getContent()
-                ))
-                .collect(Collectors.toList());
+        static CommentKey of(GoalCommentDTO comment) {
+            return new CommentKey(comment.getCreatedAt(), comment.getId());
+        }
+
+        static CommentKey decode(String cursor) {
+            long[] keys = PageCursor.decode(cursor, 3);
+            try {
+                return new CommentKey(LocalDateTime.ofEpochSecond(keys[0], (int) keys[1], ZoneOffset.UTC), keys[2]);
+            } catch (DateTimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            return PageCursor.encode(createdAt.toEpochSecond(ZoneOffset.UTC), createdAt.getNano(), id);
+        }
+    }
+
+    private static <T> List<T> trim(List<T> rows, Integer limit) {
+        return limit == null || rows.size() <= limit ? rows : rows.subList(0, limit);
     }
 
+    // An empty slice keeps the position it was read from, so a poller always has a cursor to resume with
+    private static CommentThreadPage threadPage(List<GoalCommentDTO> items, boolean hasOlder, boolean hasNewer,
+                                                CommentKey position) {
+        CommentKey first = items.isEmpty() ? position : CommentKey.of(items.get(0));
+        CommentKey last = items.isEmpty() ? position : CommentKey.of(items.get(items.size() - 1));
+        return new CommentThreadPage(items,
+                hasOlder ? first.encode() : null,
+                last != null ? last.encode() : null,
+                hasNewer);
+    }
+
+    @Transactional
     public void deleteComment(Long commentId) {
         User currentUser = userService.getAuthenticatedUser();
 
         GoalComment comment = goalCommentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
 
-        Goal goal = comment.getGoal();
-
         boolean isAuthor = comment.getAuthor().getId().equals(currentUser.getId());
-        boolean isGoalOwner = userGoalRepository.findByUserAndGoalAndHierarchy(currentUser, goal, 1).isPresent();
+        // Only consult the ACL when the user is not the author
+        boolean isGoalOwner = !isAuthor
+                && goalAccessService.accessOf(currentUser.getId(), comment.getGoal().getId()).canWrite();
 
         if (!isAuthor && !isGoalOwner) {
             throw new RuntimeException("You can only delete your own comments or comments on your goals");
         }
 
         goalCommentRepository.delete(comment);
+        commentReadStateRepository.commentDeleted(comment.getGoal().getId(), commentId, comment.getAuthor().getId());
+        goalEvents.goalChanged(GoalEventDTO.Type.COMMENT_DELETED, currentUser.getId(), comment.getGoal().getId(), commentId);
     }
 
     
@@ -236,5 +342,25 @@ public class SharingService {
                 .orElseThrow(() -> new RuntimeException("You can only update your own comments"));
         comment.setContent(newText);
         goalCommentRepository.save(comment);
+        goalEvents.goalChanged(GoalEventDTO.Type.COMMENT_UPDATED, user.getId(), comment.getGoal().getId(), commentId);
+    }
+
+    // upTo == null marks the whole thread read; the watermark never moves backwards
+    @Transactional
+    public void markCommentsRead(Long goalId, Long upTo) {
+        User user = userService.getAuthenticatedUser();
+        requireReadAccess(user, goalId, "You do not have access to view comments!");
+        if (upTo != null && upTo < 0) {
+            throw new RuntimeException("upTo must be a comment id");
+        }
+        long latest = goalCommentRepository.findLatestCommentId(goalId);
+        commentReadStateRepository.markRead(user.getId(), goalId, upTo == null ? latest : Math.min(upTo, latest));
+    }
+
+    // Owners and contacts the goal is shared with may read and comment
+    private void requireReadAccess(User user, Long goalId, String message) {
+        if (!goalAccessService.accessOf(user.getId(), goalId).canRead()) {
+            throw new RuntimeException(goalRepository.existsById(goalId) ? message : "Goal not found!");
+        }
     }
 }
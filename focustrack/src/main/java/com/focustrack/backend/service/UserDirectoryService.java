@@ -0,0 +1,72 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.cache.BoundedCache;
+import com.focustrack.backend.cache.CacheRegistry;
+import com.focustrack.backend.dto.UserDTO;
+import com.focustrack.backend.repository.UserRepository;
+import com.focustrack.backend.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Email typeahead for the contact-invite UI, built for keystroke-level traffic
+@Service
+public class UserDirectoryService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 25;
+    public static final int MAX_TERM_LENGTH = 100;
+
+    private final UserRepository userRepository;
+    private final BoundedCache<String, List<UserDTO>> results;
+    private final RateLimiter rateLimiter;
+
+    @Autowired
+    public UserDirectoryService(UserRepository userRepository, CacheRegistry cacheRegistry,
+                                @Value("${focustrack.cache.user-typeahead.max-size:5000}") int maxSize,
+                                @Value("${focustrack.cache.user-typeahead.ttl:PT30S}") Duration ttl,
+                                @Value("${focustrack.typeahead.rate-limit.capacity:20}") int burst,
+                                @Value("${focustrack.typeahead.rate-limit.per-second:5}") double perSecond) {
+        this.userRepository = userRepository;
+        this.results = cacheRegistry.create("user-typeahead", maxSize, ttl);
+        // Idle buckets are full again after burst / perSecond seconds, so they can be dropped by then
+        this.rateLimiter = new RateLimiter(
+                cacheRegistry.create("typeahead-rate-limit", 10000, Duration.ofMillis((long) Math.ceil(burst * 1000 / perSecond))),
+                burst, perSecond);
+    }
+
+    public boolean tryAcquire(Long callerId) {
+        return rateLimiter.tryAcquire(callerId);
+    }
+
+    // Results are shared between callers; the caller is filtered out afterwards
+    public List<UserDTO> typeahead(Long callerId, String q, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String term = q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty() || term.length() > MAX_TERM_LENGTH) {
+            throw new RuntimeException("q must be between 1 and " + MAX_TERM_LENGTH + " characters");
+        }
+
+        List<UserDTO> matches = results.get(size + ":" + term,
+                key -> userRepository.searchByEmail(escapeLike(term), term, size + 1).stream()
+                        .map(UserDTO::new)
+                        .collect(Collectors.toUnmodifiableList()));
+        return matches.stream()
+                .filter(user -> !user.getId().equals(callerId))
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    // '_' is common in email addresses and must not act as a wildcard
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -17,12 +17,18 @@ import com.focustrack.backend.repository.ContactRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.UUID;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import com.focustrack.backend.security.JwtUtil;
+import com.focustrack.backend.security.PrincipalCache;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -35,16 +41,18 @@ public class UserService {
     private final EmailService emailService;
     private final BCryptPasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
 
     @Autowired
     public UserService(UserRepository userRepository, ContactRepository contactRepository,PasswordResetTokenRepository passwordResetTokenRepository
-    		, BCryptPasswordEncoder passwordEncoder, JwtUtil jwtUtil, EmailService emailService) {
+    		, BCryptPasswordEncoder passwordEncoder, JwtUtil jwtUtil, EmailService emailService, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.contactRepository = contactRepository;
         this.passwordEncoder = passwordEncoder;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.jwtUtil = jwtUtil;
         this.emailService = emailService;
+        this.principalCache = principalCache;
     }
 
     
@@ -53,11 +61,10 @@ public class UserService {
         System.out.println("Authentication: " + authentication);
         if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
-            
-            Long userId = Long.parseLong(jwt.getSubject()); //  Extract user ID
 
-            return userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // Subject is the user ID; served from the principal cache when possible
+            return principalCache.get(jwt.getSubject(), subject -> userRepository.findById(Long.parseLong(subject))
+                    .orElseThrow(() -> new RuntimeException("User not found")));
         }
         throw new RuntimeException("Unauthorized request");
     }
@@ -125,8 +132,13 @@ public class UserService {
                     user.setDescription(updateData.getDescription());
                 }
 
+                if (updateData.getRemindersEnabled() != null) {
+                    user.setRemindersEnabled(updateData.getRemindersEnabled());
+                }
+
                 //  Save changes & return updated user as DTO
                 User savedUser = userRepository.save(user);
+                principalCache.invalidate(savedUser.getId());
                 return new UserDTO(savedUser);
             }).orElseThrow(() -> new RuntimeException("User not found!"));
     }
@@ -135,6 +147,7 @@ public class UserService {
     public void deleteUser() {
     	User currentUser = getAuthenticatedUser();
         userRepository.deleteById(currentUser.getId());
+        principalCache.invalidate(currentUser.getId());
     }
     
     public void deleteContact(Long contactId) {
@@ -260,20 +273,20 @@ public class UserService {
     }
 
     
+    // The token and its email commit together; the email itself goes out from the outbox, off the request thread
+    @Transactional
     public void requestPasswordReset(String email) {
         try {
             User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("No user found with that email"));
 
-            passwordResetTokenRepository.findByUser(user).ifPresent(existing -> {
-                passwordResetTokenRepository.delete(existing);
-            });
+            passwordResetTokenRepository.deleteByUser(user);
 
             String token = UUID.randomUUID().toString();
             LocalDateTime expiration = LocalDateTime.now().plusMinutes(30);
 
             PasswordResetToken resetToken = new PasswordResetToken();
-            resetToken.setToken(token);
+            resetToken.setTokenHash(hashToken(token));
             resetToken.setUser(user);
             resetToken.setExpirationDate(expiration);
 
@@ -281,7 +294,7 @@ public class UserService {
 
             String resetUrl = "https://focus-track-fe.vercel.app/reset-password?token=" + token;
 
-            emailService.sendEmail(user.getEmail(), "Reset your password",
+            emailService.enqueue(user.getEmail(), "Reset your password",
                     "Click the link to reset your password: " + resetUrl);
 
         } catch (Exception e) {
@@ -292,7 +305,7 @@ public class UserService {
 
     
     public void resetPassword(String token, String newPassword) {
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(token)
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByTokenHash(hashToken(token))
                 .orElseThrow(() -> new RuntimeException("Invalid token"));
 
         if (resetToken.getExpirationDate().isBefore(LocalDateTime.now())) {
@@ -302,9 +315,20 @@ public class UserService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
 
         passwordResetTokenRepository.delete(resetToken); // Optional: invalidate token
     }
 
+    // Tokens are looked up and stored by their SHA-256, hex encoded (64 chars)
+    static String hashToken(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 
 }
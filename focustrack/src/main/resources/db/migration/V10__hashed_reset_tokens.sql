@@ -0,0 +1,8 @@
+-- Reset tokens are stored as the hex SHA-256 of the token sent by email: fixed width, uniquely indexed,
+-- and useless to anyone who can read the table. Outstanding tokens are hashed in place and keep working.
+
+ALTER TABLE password_reset_tokens ADD COLUMN token_hash varchar(64);
+UPDATE password_reset_tokens SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+ALTER TABLE password_reset_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE password_reset_tokens DROP COLUMN token;
+ALTER TABLE password_reset_tokens ADD CONSTRAINT uk_password_reset_tokens_token_hash UNIQUE (token_hash);
@@ -0,0 +1,30 @@
+-- Per-(user, goal) comment read watermark with an unread counter maintained on every comment insert/delete,
+-- so goal lists can show unread badges without counting comments.
+
+CREATE TABLE comment_read_states (
+    user_id              bigint  NOT NULL REFERENCES users (id),
+    goal_id              bigint  NOT NULL REFERENCES goals (id),
+    last_read_comment_id bigint  NOT NULL DEFAULT 0,
+    unread_count         integer NOT NULL DEFAULT 0,
+    row_version          bigint  NOT NULL DEFAULT nextval('row_version_seq'),
+    PRIMARY KEY (user_id, goal_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_read_states_goal ON comment_read_states (goal_id);
+
+-- Watermark counts only look at comments newer than a comment id
+CREATE INDEX IF NOT EXISTS idx_goal_comments_goal_id ON goal_comments (goal_id, id);
+
+-- Goal lists fold the read states into their ETags
+CREATE TRIGGER trg_comment_read_states_row_version
+    BEFORE INSERT OR UPDATE ON comment_read_states
+    FOR EACH ROW EXECUTE FUNCTION bump_row_version();
+
+-- Existing threads start out read for their owners and contacts
+INSERT INTO comment_read_states (user_id, goal_id, last_read_comment_id, unread_count)
+SELECT w.user_id, c.goal_id, max(c.id), 0
+FROM (SELECT user_id, goal_id FROM user_goals
+      UNION
+      SELECT contact_id, goal_id FROM shared_goals) w
+JOIN goal_comments c ON c.goal_id = w.goal_id
+GROUP BY w.user_id, c.goal_id;
@@ -0,0 +1,11 @@
+-- Read-only tokens for subscribing to the iCalendar feed; one per user, stored as a hex SHA-256 hash.
+-- They never expire and are revoked by deleting (or replacing) the row.
+
+CREATE TABLE calendar_feed_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint       NOT NULL REFERENCES users (id),
+    token_hash varchar(64)  NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_calendar_feed_tokens_user UNIQUE (user_id),
+    CONSTRAINT uk_calendar_feed_tokens_token_hash UNIQUE (token_hash)
+);
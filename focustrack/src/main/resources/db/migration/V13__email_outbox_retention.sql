@@ -0,0 +1,8 @@
+-- Bodies can carry secrets (password-reset links), so they are cleared once a message is SENT or DEAD,
+-- and finished rows are deleted after the retention period by EmailOutboxSweeper.
+
+ALTER TABLE email_outbox ALTER COLUMN body DROP NOT NULL;
+
+UPDATE email_outbox SET body = NULL WHERE status <> 'PENDING';
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_finished ON email_outbox (created_at) WHERE status <> 'PENDING';
@@ -0,0 +1,66 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       varchar(255) NOT NULL,
+    password    varchar(255) NOT NULL,
+    description varchar(255),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_contacts (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          bigint  NOT NULL REFERENCES users (id),
+    contact_id       bigint  NOT NULL REFERENCES users (id),
+    contact_accepted boolean NOT NULL
+);
+
+CREATE TABLE goals (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description varchar(255) NOT NULL,
+    priority    integer      NOT NULL,
+    progress    integer      NOT NULL,
+    start_date  date         NOT NULL,
+    due_date    date         NOT NULL,
+    is_done     boolean      NOT NULL,
+    goal_order  integer      NOT NULL
+);
+
+CREATE TABLE goal_steps (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    main_goal_id bigint NOT NULL REFERENCES goals (id),
+    step_goal_id bigint NOT NULL REFERENCES goals (id)
+);
+
+CREATE TABLE user_goals (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id   bigint  NOT NULL REFERENCES users (id),
+    goal_id   bigint  NOT NULL REFERENCES goals (id),
+    hierarchy integer NOT NULL
+);
+
+CREATE TABLE shared_goals (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    goal_id    bigint NOT NULL REFERENCES goals (id),
+    owner_id   bigint NOT NULL REFERENCES users (id),
+    contact_id bigint NOT NULL REFERENCES users (id),
+    CONSTRAINT uk_shared_goals_goal_contact UNIQUE (goal_id, contact_id)
+);
+
+CREATE TABLE goal_comments (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    goal_id    bigint       NOT NULL REFERENCES goals (id),
+    author_id  bigint       NOT NULL REFERENCES users (id),
+    content    varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE password_reset_tokens (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token           varchar(255) NOT NULL,
+    user_id         bigint       NOT NULL REFERENCES users (id),
+    expiration_date timestamp(6) NOT NULL,
+    CONSTRAINT uk_password_reset_tokens_token UNIQUE (token),
+    CONSTRAINT uk_password_reset_tokens_user UNIQUE (user_id)
+);
@@ -0,0 +1,34 @@
+-- Step counters on main goals and per-user goal statistics.
+-- Written idempotently because these may already exist on databases that ran with ddl-auto=update.
+
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS step_count integer NOT NULL DEFAULT 0;
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS done_step_count integer NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS user_goal_stats (
+    user_id               bigint  PRIMARY KEY,
+    total_goals           integer NOT NULL,
+    done_goals            integer NOT NULL,
+    low_priority_goals    integer NOT NULL,
+    medium_priority_goals integer NOT NULL,
+    high_priority_goals   integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_goal_due_counts (
+    user_id    bigint  NOT NULL,
+    due_date   date    NOT NULL,
+    open_goals integer NOT NULL,
+    PRIMARY KEY (user_id, due_date)
+);
+
+-- Counters start from the current steps; progress of main goals with steps is derived from them
+UPDATE goals g
+SET step_count      = s.steps,
+    done_step_count = s.done_steps,
+    progress        = (s.done_steps * 100) / s.steps
+FROM (SELECT gs.main_goal_id,
+             count(*)                              AS steps,
+             count(*) FILTER (WHERE step.is_done) AS done_steps
+      FROM goal_steps gs
+      JOIN goals step ON step.id = gs.step_goal_id
+      GROUP BY gs.main_goal_id) s
+WHERE g.id = s.main_goal_id;
@@ -0,0 +1,21 @@
+-- Secondary indexes for the repository queries
+
+-- Goal lists, ownership checks and joins through user_goals
+CREATE INDEX IF NOT EXISTS idx_user_goals_user_goal_hierarchy ON user_goals (user_id, goal_id, hierarchy);
+CREATE INDEX IF NOT EXISTS idx_user_goals_user_hierarchy ON user_goals (user_id, hierarchy);
+CREATE INDEX IF NOT EXISTS idx_user_goals_goal ON user_goals (goal_id);
+
+CREATE INDEX IF NOT EXISTS idx_goal_steps_main_goal ON goal_steps (main_goal_id);
+CREATE INDEX IF NOT EXISTS idx_goal_steps_step_goal ON goal_steps (step_goal_id);
+
+-- (goal_id, contact_id) is already covered by its unique constraint
+CREATE INDEX IF NOT EXISTS idx_shared_goals_contact ON shared_goals (contact_id);
+CREATE INDEX IF NOT EXISTS idx_shared_goals_owner_contact ON shared_goals (owner_id, contact_id);
+
+CREATE INDEX IF NOT EXISTS idx_goal_comments_goal_created ON goal_comments (goal_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_goal_comments_author ON goal_comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_user_contacts_contact_accepted ON user_contacts (contact_id, contact_accepted);
+CREATE INDEX IF NOT EXISTS idx_user_contacts_user_contact ON user_contacts (user_id, contact_id);
+
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_expiration ON password_reset_tokens (expiration_date);
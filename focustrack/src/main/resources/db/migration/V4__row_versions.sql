@@ -0,0 +1,28 @@
+-- Monotonic row versions for goals, comments and shares.
+-- Every insert or update (entity saves, bulk JPQL and JDBC batches alike) takes the next value of one
+-- shared sequence, so (count, max(row_version), sum(id)) over a set of rows changes whenever the set does.
+
+CREATE SEQUENCE IF NOT EXISTS row_version_seq;
+
+CREATE OR REPLACE FUNCTION bump_row_version() RETURNS trigger AS $$
+BEGIN
+    NEW.row_version := nextval('row_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE goals ADD COLUMN row_version bigint NOT NULL DEFAULT nextval('row_version_seq');
+ALTER TABLE goal_comments ADD COLUMN row_version bigint NOT NULL DEFAULT nextval('row_version_seq');
+ALTER TABLE shared_goals ADD COLUMN row_version bigint NOT NULL DEFAULT nextval('row_version_seq');
+
+CREATE TRIGGER trg_goals_row_version
+    BEFORE INSERT OR UPDATE ON goals
+    FOR EACH ROW EXECUTE FUNCTION bump_row_version();
+
+CREATE TRIGGER trg_goal_comments_row_version
+    BEFORE INSERT OR UPDATE ON goal_comments
+    FOR EACH ROW EXECUTE FUNCTION bump_row_version();
+
+CREATE TRIGGER trg_shared_goals_row_version
+    BEFORE INSERT OR UPDATE ON shared_goals
+    FOR EACH ROW EXECUTE FUNCTION bump_row_version();
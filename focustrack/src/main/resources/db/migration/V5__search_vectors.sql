@@ -0,0 +1,13 @@
+-- Full-text search over goal descriptions and comments.
+-- Generated columns keep the vectors in step with every write path; the two-argument to_tsvector is immutable.
+
+ALTER TABLE goals
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('english'::regconfig, coalesce(description, ''))) STORED;
+
+ALTER TABLE goal_comments
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('english'::regconfig, coalesce(content, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_goals_search_vector ON goals USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_goal_comments_search_vector ON goal_comments USING GIN (search_vector);
@@ -0,0 +1,6 @@
+-- Typeahead over users.email: prefix matches use the text_pattern_ops index, fuzzy matches the trigram index.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_pattern ON users (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_trgm ON users USING GIN (lower(email) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Calendar window queries: range scans on either date, combined by a bitmap OR
+CREATE INDEX IF NOT EXISTS idx_goals_due_date ON goals (due_date);
+CREATE INDEX IF NOT EXISTS idx_goals_start_date ON goals (start_date);
@@ -0,0 +1,17 @@
+-- Outgoing mail, written in the same transaction as the change that triggers it and sent by EmailOutboxDispatcher
+
+CREATE TABLE email_outbox (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    subject         varchar(255)  NOT NULL,
+    body            text          NOT NULL,
+    status          varchar(16)   NOT NULL,
+    attempts        integer       NOT NULL DEFAULT 0,
+    next_attempt_at timestamp(6)  NOT NULL,
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL,
+    sent_at         timestamp(6)
+);
+
+-- Only pending rows are ever polled, so keep the index to those
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending ON email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
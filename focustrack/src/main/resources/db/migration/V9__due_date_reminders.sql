@@ -0,0 +1,9 @@
+-- Opt-in due-date reminders
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS reminders_enabled boolean NOT NULL DEFAULT false;
+
+-- Due date a reminder was last sent for; moving the due date makes the goal eligible again
+ALTER TABLE goals ADD COLUMN IF NOT EXISTS reminded_for_due_date date;
+
+-- Keyset scan of open goals by (due_date, id)
+CREATE INDEX IF NOT EXISTS idx_goals_open_due ON goals (due_date, id) WHERE is_done = false;
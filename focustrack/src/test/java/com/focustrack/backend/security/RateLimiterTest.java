@@ -0,0 +1,45 @@
+package com.focustrack.backend.security;
+
+import com.focustrack.backend.cache.BoundedCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimiter limiter = new RateLimiter(
+            new BoundedCache<>("test", 100, Duration.ofMinutes(1)), 3, 1.0, now::get);
+
+    @Test
+    void testTryAcquire_BurstThenRejected() {
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void testTryAcquire_RefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L);
+        }
+        assertFalse(limiter.tryAcquire(1L));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void testTryAcquire_KeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L);
+        }
+        assertFalse(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(2L));
+    }
+}
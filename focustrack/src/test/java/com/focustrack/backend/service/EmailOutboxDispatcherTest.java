@@ -0,0 +1,101 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.model.EmailOutboxMessage;
+import com.focustrack.backend.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmailOutboxDispatcherTest {
+
+    private EmailOutboxRepository repository;
+    private JavaMailSender mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        dispatcher = new EmailOutboxDispatcher(repository, mailSender, mock(PlatformTransactionManager.class),
+                10, 25, 3, Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    private static EmailOutboxMessage message(long id, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setRecipient("user" + id + "@example.com");
+        message.setSubject("Subject");
+        message.setBody("Body");
+        message.setAttempts(attempts);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+
+    @Test
+    void testDispatchBatch_SentMessagesAreMarkedSent() {
+        when(repository.lockDue(any(), eq(10))).thenReturn(List.of(message(1L, 0), message(2L, 0)));
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        verify(mailSender).send(any(SimpleMailMessage[].class));
+        verify(repository).markSent(eq(List.of(1L, 2L)), any());
+        verify(repository, never()).markFailed(any(), any(), any());
+    }
+
+    @Test
+    void testDispatchBatch_FailureIsRetriedThenDeadLettered() {
+        when(repository.lockDue(any(), eq(10))).thenReturn(List.of(message(1L, 0), message(2L, 2)));
+        doThrow(new MailSendException("Mail server connection failed")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        // Claiming counts the attempt: message 1 is on attempt 1 of 3, message 2 on its last
+        verify(repository).markFailed(eq(1L), any(), anyString());
+        verify(repository).markDead(eq(2L), anyString());
+        verify(repository, never()).markFailed(eq(2L), any(), any());
+        verify(repository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void testDispatchBatch_NothingDue() {
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatchBatch());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void testDispatch_StopsAtThePerPollBudget() {
+        when(repository.lockDue(any(), eq(10))).thenAnswer(invocation -> List.of(
+                message(1L, 0), message(2L, 0), message(3L, 0), message(4L, 0), message(5L, 0),
+                message(6L, 0), message(7L, 0), message(8L, 0), message(9L, 0), message(10L, 0)));
+        when(repository.lockDue(any(), eq(5))).thenAnswer(invocation -> List.of(
+                message(11L, 0), message(12L, 0), message(13L, 0), message(14L, 0), message(15L, 0)));
+
+        dispatcher.dispatch();
+
+        // 10 + 10 + 5 = the budget of 25, although every claim came back full
+        verify(repository, times(2)).lockDue(any(), eq(10));
+        verify(repository, times(1)).lockDue(any(), eq(5));
+        verify(mailSender, times(3)).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void testBackoff_DoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(10));
+    }
+}
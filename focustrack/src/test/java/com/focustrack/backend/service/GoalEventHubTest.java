@@ -0,0 +1,50 @@
+package com.focustrack.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GoalEventHubTest {
+
+    @Test
+    void testPublish_EvictsSubscriberWhoseBufferOverflows() {
+        // Delivery never runs, as for a client that stopped reading
+        GoalEventHub hub = new GoalEventHub(task -> { }, 2, 5, Duration.ofMinutes(1));
+        hub.subscribe(1L); // the "connected" frame takes one slot
+
+        hub.publish(List.of(1L), "GOAL_UPDATED", "{}");
+        assertEquals(1, hub.subscriberCount());
+
+        hub.publish(List.of(1L), "GOAL_UPDATED", "{}");
+        assertEquals(0, hub.subscriberCount());
+        assertEquals(1, hub.evictionCount());
+        assertFalse(hub.hasSubscribers());
+    }
+
+    @Test
+    void testPublish_OnlyBuffersForRecipients() {
+        GoalEventHub hub = new GoalEventHub(task -> { }, 2, 5, Duration.ofMinutes(1));
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.publish(List.of(2L), "COMMENT_ADDED", "{}");
+        hub.publish(List.of(2L), "COMMENT_ADDED", "{}");
+
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(1, hub.evictionCount());
+    }
+
+    @Test
+    void testSubscribe_ClosesOldestConnectionOverPerUserLimit() {
+        GoalEventHub hub = new GoalEventHub(Runnable::run, 8, 2, Duration.ofMinutes(1));
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+
+        assertEquals(2, hub.subscriberCount());
+        assertEquals(1, hub.evictionCount());
+    }
+}
@@ -0,0 +1,44 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.GoalOrderKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GoalOrderingTest {
+
+    @Test
+    void testBetween_Midpoint() {
+        assertEquals(OptionalInt.of(1536), GoalOrdering.between(1024, 2048));
+    }
+
+    @Test
+    void testBetween_AtEitherEnd() {
+        assertEquals(OptionalInt.of(2048), GoalOrdering.between(1024, null));
+        assertEquals(OptionalInt.of(0), GoalOrdering.between(null, 1024));
+        assertEquals(OptionalInt.of(GoalOrdering.GAP), GoalOrdering.between(null, null));
+    }
+
+    @Test
+    void testBetween_AdjacentKeysNeedRespace() {
+        assertTrue(GoalOrdering.between(3, 4).isEmpty());
+        assertTrue(GoalOrdering.between(5, 5).isEmpty());
+        assertTrue(GoalOrdering.between(Integer.MAX_VALUE - 1, null).isEmpty());
+    }
+
+    @Test
+    void testRespace_OnlyChangedKeysReturned() {
+        List<GoalOrderKey> current = List.of(
+                new GoalOrderKey(1L, 1024),
+                new GoalOrderKey(2L, 2048),
+                new GoalOrderKey(3L, 3072));
+
+        Map<Long, Integer> changes = GoalOrdering.respace(current, List.of(1L, 3L, 2L));
+
+        assertEquals(Map.of(3L, 2048, 2L, 3072), changes);
+    }
+}
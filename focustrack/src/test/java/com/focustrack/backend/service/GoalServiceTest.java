@@ -0,0 +1,114 @@
+package com.focustrack.backend.service;
+
+import com.focustrack.backend.dto.PageCursor;
+import com.focustrack.backend.dto.UpdateGoalDTO;
+import com.focustrack.backend.model.Goal;
+import com.focustrack.backend.model.User;
+import com.focustrack.backend.model.UserGoal;
+import com.focustrack.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class GoalServiceTest {
+
+    private static final LocalDate OLD_DUE = LocalDate.of(2026, 3, 1);
+    private static final LocalDate NEW_DUE = LocalDate.of(2026, 4, 1);
+
+    private UserGoalStatsRepository statsRepository;
+    private GoalRepository goalRepository;
+    private UserGoalRepository userGoalRepository;
+    private GoalService goalService;
+    private User user;
+    private Goal goal;
+
+    @BeforeEach
+    void setUp() {
+        statsRepository = mock(UserGoalStatsRepository.class);
+        userGoalRepository = mock(UserGoalRepository.class);
+        goalRepository = mock(GoalRepository.class);
+        UserService userService = mock(UserService.class);
+        goalService = new GoalService(goalRepository, userGoalRepository, mock(GoalStepRepository.class),
+                mock(SharingRepository.class), mock(GoalCommentRepository.class), mock(CommentReadStateRepository.class),
+                userService, new GoalStatsService(statsRepository), mock(GoalAccessService.class), mock(GoalEvents.class));
+
+        user = new User();
+        user.setId(1L);
+        goal = new Goal("Write report", 2, LocalDate.of(2026, 1, 1), OLD_DUE, 0);
+        goal.setId(10L);
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(userGoalRepository.findWithGoalByUserAndGoalId(user, 10L))
+                .thenReturn(Optional.of(new UserGoal(100L, user, goal, 1)));
+        when(statsRepository.applyDelta(anyLong(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(1);
+    }
+
+    @Test
+    void testUpdateGoal_PriorityAndDueDateMoveBetweenSummaryBuckets() {
+        UpdateGoalDTO update = new UpdateGoalDTO();
+        update.setPriority(9);
+        update.setDueDate(NEW_DUE);
+
+        goalService.updateGoal(10L, update);
+
+        // low -1, high +1; totals and done unchanged
+        verify(statsRepository).applyDelta(1L, 0, 0, -1, 0, 1);
+        verify(statsRepository).applyDueDelta(1L, OLD_DUE, -1);
+        verify(statsRepository).applyDueDelta(1L, NEW_DUE, 1);
+        verify(statsRepository, never()).rebuildSummary(anyLong());
+    }
+
+    @Test
+    void testUpdateGoal_MarkingDoneClosesTheOldDueDate() {
+        UpdateGoalDTO update = new UpdateGoalDTO();
+        update.setDueDate(NEW_DUE);
+        update.setIsDone(true);
+        when(goalRepository.updateDoneIfChanged(10L, true)).thenReturn(1);
+
+        goalService.updateGoal(10L, update);
+
+        verify(statsRepository).applyDelta(1L, 0, 1, 0, 0, 0);
+        verify(statsRepository).applyDueDelta(1L, OLD_DUE, -1);
+        verify(statsRepository, never()).applyDueDelta(eq(1L), eq(NEW_DUE), anyInt());
+    }
+
+    @Test
+    void testAddGoalStep_RejectsGoalTheUserDoesNotOwnAsMainGoal() {
+        when(userGoalRepository.existsByUserAndGoal_IdAndHierarchy(user, 20L, 1)).thenReturn(false);
+        when(goalRepository.existsById(20L)).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> goalService.addGoalStep(20L, "Step", 3,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), 0));
+
+        verify(goalRepository, never()).save(any());
+        verify(goalRepository, never()).adjustStepCounts(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testUpdateGoalStatus_StepAlreadyFlippedByConcurrentRequestLeavesCountersAlone() {
+        goal.setId(11L);
+        when(userGoalRepository.findWithGoalByUserAndGoalId(user, 11L))
+                .thenReturn(Optional.of(new UserGoal(101L, user, goal, 2)));
+        // The loaded entity still says not done, but another request already flipped the row
+        when(goalRepository.updateDoneIfChanged(11L, true)).thenReturn(0);
+
+        goalService.updateGoalStatus(11L, true);
+
+        verify(goalRepository, never()).adjustStepCounts(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetUserGoals_CursorOrderOutsideIntRangeIsRejected() {
+        String cursor = PageCursor.encode((long) Integer.MAX_VALUE + 1, 5L);
+
+        Exception exception = assertThrows(RuntimeException.class, () -> goalService.getUserGoals(false, 10, cursor));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(userGoalRepository);
+    }
+}
@@ -0,0 +1,133 @@
+package com.focustrack.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.focustrack.backend.dto.ImportResultDTO;
+import com.focustrack.backend.model.User;
+import com.focustrack.backend.repository.GoalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ImportServiceTest {
+
+    private static final String HEADER = "type,description,priority,startDate,dueDate,order,done";
+
+    private GoalRepository goalRepository;
+    private GoalAccessService goalAccessService;
+    private ObjectMapper objectMapper;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        goalRepository = mock(GoalRepository.class);
+        goalAccessService = mock(GoalAccessService.class);
+        UserService userService = mock(UserService.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        // A batch closes once it holds two rows, so small files already span several batches
+        importService = new ImportService(goalRepository, userService, mock(GoalStatsService.class), goalAccessService,
+                objectMapper, mock(PlatformTransactionManager.class), 2);
+
+        User user = new User();
+        user.setId(1L);
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+    }
+
+    @Test
+    void testSplitCsvLine_QuotedFieldsAndEscapedQuotes() {
+        assertEquals(List.of("goal", "Plan, then write", "Say \"hi\"", ""),
+                ImportService.splitCsvLine("goal,\"Plan, then write\",\"Say \"\"hi\"\"\","));
+        assertEquals(List.of("\"", "b"), ImportService.splitCsvLine("\"\"\"\",b"));
+    }
+
+    @Test
+    void testSplitCsvLine_UnterminatedQuote() {
+        Exception exception = assertThrows(RuntimeException.class, () -> ImportService.splitCsvLine("goal,\"open"));
+
+        assertEquals("Unterminated quoted field", exception.getMessage());
+    }
+
+    @Test
+    void testImportCsv_MissingColumnsRejectTheFile() {
+        assertThrows(IllegalStateException.class,
+                () -> importService.importCsv(input("type,description,priority,startDate", "goal,Read,1,2026-01-01")));
+
+        verifyNoInteractions(goalRepository);
+    }
+
+    @Test
+    void testImportCsv_StepsUnderAnInvalidGoalAreRejected() {
+        ImportResultDTO result = importService.importCsv(input(
+                HEADER,
+                "goal,Read,high,2026-01-01,2026-02-01,0,false",
+                "step,Chapter 1,1,2026-01-01,2026-01-10,0,false",
+                "step,Chapter 2,1,2026-01-01,2026-01-20,1,false",
+                "goal,Write,1,2026-01-01,2026-02-01,1,false",
+                "step,Outline,1,2026-01-01,2026-01-05,0,true"));
+
+        assertEquals(1, result.getImportedGoals());
+        assertEquals(1, result.getImportedSteps());
+        assertEquals(3, result.getFailedLines());
+        assertEquals(List.of(2, 3, 4), lines(result));
+        assertEquals("priority and order must be whole numbers", result.getErrors().get(0).getMessage());
+        assertEquals("Step row without a valid goal row above it", result.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void testImportCsv_RolledBackBatchReportsAllOfItsLines() {
+        doThrow(new RuntimeException("connection reset")).doNothing()
+                .when(goalRepository).batchInsertGoals(anyLong(), anyList(), anyList());
+
+        ImportResultDTO result = importService.importCsv(input(
+                HEADER,
+                "goal,Read,1,2026-01-01,2026-02-01,0,false",
+                "step,Chapter 1,1,2026-01-01,2026-01-10,0,false",
+                "",
+                "goal,Write,1,2026-01-01,2026-02-01,1,false",
+                "step,Outline,1,2026-01-01,2026-01-05,0,true"));
+
+        assertEquals(1, result.getImportedGoals());
+        assertEquals(1, result.getImportedSteps());
+        assertEquals(2, result.getFailedLines());
+        assertEquals(List.of(2, 3), lines(result));
+        assertEquals("Batch could not be saved: connection reset", result.getErrors().get(0).getMessage());
+        verify(goalAccessService, times(1)).invalidateGoals(anyList());
+    }
+
+    @Test
+    void testImportNdjson_TooManyStepsOnOneLine() throws Exception {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (int i = 0; i <= ImportService.MAX_STEPS_PER_GOAL; i++) {
+            steps.add(Map.of("description", "Step " + i, "startDate", "2026-01-01", "dueDate", "2026-01-02"));
+        }
+        String tooLarge = objectMapper.writeValueAsString(Map.of("description", "Big", "startDate", "2026-01-01",
+                "dueDate", "2026-02-01", "steps", steps));
+
+        ImportResultDTO result = importService.importNdjson(input(
+                "{\"description\":\"Small\",\"startDate\":\"2026-01-01\",\"dueDate\":\"2026-02-01\"}",
+                tooLarge));
+
+        assertEquals(1, result.getImportedGoals());
+        assertEquals(List.of(2), lines(result));
+        assertEquals("A goal can have at most " + ImportService.MAX_STEPS_PER_GOAL + " steps",
+                result.getErrors().get(0).getMessage());
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Integer> lines(ImportResultDTO result) {
+        return result.getErrors().stream().map(ImportResultDTO.LineError::getLine).toList();
+    }
+}
@@ -6,12 +6,15 @@ import com.focustrack.backend.dto.UserDTO;
 import com.focustrack.backend.model.User;
 import com.focustrack.backend.repository.UserRepository;
 import com.focustrack.backend.repository.ContactRepository;
+import com.focustrack.backend.cache.CacheRegistry;
 import com.focustrack.backend.security.JwtUtil;
+import com.focustrack.backend.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.core.context.SecurityContext;
@@ -19,6 +22,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,6 +49,9 @@ public class UserServiceTest {
     @Mock
     private SecurityContext securityContext;
 
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(new CacheRegistry(), 100, Duration.ofMinutes(5));
+
     @InjectMocks
     private UserService userService;
 
@@ -159,4 +166,21 @@ public class UserServiceTest {
         assertEquals("User not found", exception.getMessage());
     }
 
+    @Test
+    void testGetAuthenticatedUser_CachedAcrossCalls() {
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+
+        Jwt mockJwt = mock(Jwt.class);
+        when(authentication.getPrincipal()).thenReturn(mockJwt);
+        when(mockJwt.getSubject()).thenReturn(String.valueOf(user.getId()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        userService.getAuthenticatedUser();
+        User authenticatedUser = userService.getAuthenticatedUser();
+
+        assertEquals(user.getId(), authenticatedUser.getId());
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
 }